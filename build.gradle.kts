@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    alias(libs.plugins.jmh)
 }
 
 group = "org.example"
@@ -9,12 +10,24 @@ repositories {
     mavenCentral()
 }
 
+// Load tests live in src/loadTest/java and drive the SDK against a local simulator of the API
+val loadTest by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     // Internal SDK dependencies
     implementation(libs.okhttp)
     implementation(libs.gson)
     implementation(libs.slf4jApi)
 
+    // Optional: only needed by applications using MicrometerSDKMetrics
+    compileOnly(libs.micrometerCore)
+
     // Tests: JUnit via BOM
     testImplementation(platform(libs.junitBom))
     testImplementation(libs.junitJupiter)
@@ -23,8 +36,31 @@ dependencies {
     // Mockito
     testImplementation(libs.mockitoCore)
     testImplementation(libs.mockitoJunitJupiter)
+    testImplementation(libs.micrometerCore)
+    testImplementation(libs.mockwebserver)
+
+    // Benchmarks and load tests: local stand-in for the OpenWeatherMap API
+    jmh(libs.mockwebserver)
+    "loadTestImplementation"(libs.mockwebserver)
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Run with ./gradlew loadTest --args="--threads 200 --zipf 1.1 --latency lognormal:40,0.6"; --help lists all options
+tasks.register<JavaExec>("loadTest") {
+    description = "Drives the SDK against a local OpenWeatherMap simulator and reports throughput and latency."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass = "org.example.sdk.LoadTest"
+}
+
+// Microbenchmarks live in src/jmh/java; run with ./gradlew jmh (filter with -Pjmh.includes=<regex>)
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+    // JSON results can be archived per commit and compared over time
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
@@ -0,0 +1,78 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link WeatherCache} lookups and inserts under contention.
+ * <p>
+ * {@code getFresh} runs with 8 reader threads on a full cache; the {@code readWrite} group mixes 7 readers
+ * with 1 writer that keeps replacing and evicting entries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherCacheBenchmark {
+
+    @Param({"10", "100000"})
+    int capacity;
+
+    private WeatherCache cache;
+    private String[] cities;
+    private final WeatherData data = new WeatherData();
+
+    @Setup
+    public void setUp() {
+        cache = new WeatherCache(capacity, Duration.ofMinutes(10));
+        // Twice the capacity: writers keep evicting, readers see a mix of hits and misses
+        cities = new String[capacity * 2];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = "City" + i;
+            if (i < capacity) cache.put(cities[i], data);
+        }
+    }
+
+    private String randomCity() {
+        return cities[ThreadLocalRandom.current().nextInt(cities.length)];
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CacheEntry getFresh() {
+        return cache.getFresh(randomCity());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(7)
+    public CacheEntry readWriteGet() {
+        return cache.getFresh(randomCity());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWritePut() {
+        cache.put(randomCity(), data);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.sdk;
+
+import mockwebserver3.Dispatcher;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import org.example.cache.WeatherCache;
+import org.example.constant.Mode;
+import org.example.model.WeatherData;
+import org.example.service.HttpTransport;
+import org.example.service.WeatherService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end cost of {@link OpenWeatherMapSDKImpl#getCurrentWeather(String)} against a local MockWebServer:
+ * the hit path (cache only) and the miss path (HTTP round trip, decoding and cache insert).
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OpenWeatherMapSDKBenchmark {
+
+    private static final String RESPONSE = """
+            {"weather":[{"id":802,"main":"Clouds","description":"scattered clouds","icon":"03n"}],\
+            "main":{"temp":269.6,"feels_like":267.57,"pressure":1025,"humidity":85},\
+            "visibility":10000,"wind":{"speed":1.38,"deg":217},"dt":1675744800,\
+            "sys":{"country":"IT","sunrise":1675751262,"sunset":1675787560},\
+            "timezone":3600,"id":3163858,"name":"Zocca","cod":200}""";
+
+    private MockWebServer server;
+    private OpenWeatherMapSDKImpl sdk;
+    private final AtomicLong missCounter = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse.Builder()
+                        .addHeader("Content-Type", "application/json")
+                        .body(RESPONSE)
+                        .build();
+            }
+        });
+        server.start();
+
+        SDKConfig config = SDKConfig.builder().mode(Mode.ON_DEMAND).maxEntries(1_000).build();
+        WeatherService service = new WeatherService("benchmark", HttpTransport.shared().client(),
+                server.url("/data/2.5/weather").toString());
+        WeatherCache cache = new WeatherCache(config.getMaxEntries(), config.getTtl());
+        sdk = new OpenWeatherMapSDKImpl("benchmark", config, service, cache);
+        sdk.getCurrentWeather("Zocca");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sdk.delete();
+        server.close();
+    }
+
+    @Benchmark
+    public WeatherData hit() {
+        return sdk.getCurrentWeather("Zocca");
+    }
+
+    @Benchmark
+    public WeatherData miss() {
+        // Unique names never hit the cache: every call pays the HTTP round trip
+        return sdk.getCurrentWeather("City" + missCounter.incrementAndGet());
+    }
+}
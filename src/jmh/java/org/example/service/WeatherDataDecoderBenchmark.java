@@ -0,0 +1,58 @@
+package org.example.service;
+
+import com.google.gson.Gson;
+import okio.Buffer;
+import org.example.model.WeatherData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the byte-level {@link WeatherDataDecoder} with the reflection-based Gson binding it replaced. Both
+ * start from the raw UTF-8 bytes, as a response body does; Gson has to decode them into chars first.
+ * Run with {@code -prof gc} to compare allocation rates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherDataDecoderBenchmark {
+
+    private static final String RESPONSE = """
+            {"coord":{"lon":10.99,"lat":44.34},\
+            "weather":[{"id":802,"main":"Clouds","description":"scattered clouds","icon":"03n"}],\
+            "base":"stations",\
+            "main":{"temp":269.6,"feels_like":267.57,"temp_min":268.71,"temp_max":271.48,"pressure":1025,\
+            "humidity":85,"sea_level":1025,"grnd_level":944},\
+            "visibility":10000,"wind":{"speed":1.38,"deg":217,"gust":1.32},"clouds":{"all":38},\
+            "dt":1675744800,"sys":{"type":2,"id":2004688,"country":"IT","sunrise":1675751262,"sunset":1675787560},\
+            "timezone":3600,"id":3163858,"name":"Zocca","cod":200}""";
+
+    private static final byte[] RESPONSE_BYTES = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    private final Gson gson = new Gson();
+
+    @Benchmark
+    public WeatherData gsonReflection() {
+        Buffer body = new Buffer().write(RESPONSE_BYTES);
+        return gson.fromJson(new InputStreamReader(body.inputStream(), StandardCharsets.UTF_8), WeatherData.class);
+    }
+
+    @Benchmark
+    public WeatherData streamingDecoder() throws IOException {
+        return WeatherDataDecoder.decode(new Buffer().write(RESPONSE_BYTES));
+    }
+}
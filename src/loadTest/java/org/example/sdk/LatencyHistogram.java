@@ -0,0 +1,67 @@
+package org.example.sdk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free latency histogram with log-linear buckets: each power of two of microseconds is split into
+ * {@value #SUB_BUCKETS} equal buckets, so percentiles are accurate within about 6% from 1 µs to hours,
+ * in a fixed few kilobytes no matter how many values are recorded.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS * (64 - SUB_BUCKET_BITS + 1));
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        max.accumulate(micros);
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile from 0 to 100
+     * @return upper bound of the bucket holding the given percentile, in microseconds; 0 if nothing was recorded
+     */
+    long percentileMicros(double percentile) {
+        long count = count();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros); // >= SUB_BUCKET_BITS
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (shift + 1) + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.sdk;
+
+import org.example.constant.Mode;
+import org.example.error.SDKException;
+import org.example.metrics.SDKMetrics;
+import org.example.service.HttpTransport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of {@link OpenWeatherMapSDKImpl#getCurrentWeather(String)} against a {@link WeatherApiSimulator}.
+ * <p>
+ * Callers on platform or virtual threads look up cities drawn from a Zipf distribution as fast as they can,
+ * first for a warm-up period, then for the measured period. Reports throughput, lookup latency percentiles,
+ * cache hit ratio and upstream calls by HTTP status for the measured period only. Keys beyond the simulated
+ * cities are unknown upstream and exercise the negative cache.
+ * <p>
+ * Run with {@code ./gradlew loadTest --args="..."}; {@code --help} lists the options.
+ */
+public final class LoadTest {
+
+    private static final String USAGE = """
+            Options:
+              --threads <n>            concurrent callers (default 64)
+              --virtual-threads        run callers on virtual threads
+              --duration <s>           measured period in seconds (default 30)
+              --warmup <s>             warm-up period in seconds, not measured (default 5)
+              --keys <n>               distinct cities looked up (default 10000)
+              --zipf <exponent>        skew of the key distribution, 0 for uniform (default 1.0)
+              --mode <mode>            ON_DEMAND or POLLING (default ON_DEMAND)
+              --cache <n>              cache capacity in cities (default 1000)
+              --ttl <s>                cache TTL in seconds (default 600)
+              --sdk-virtual-threads    enable SDKConfig#virtualThreads
+              --latency <dist>         upstream latency: fixed:<ms>, uniform:<min>-<max> or
+                                       lognormal:<median>,<sigma> (default lognormal:50,0.5)
+              --error-rate <r>         share of upstream 500 responses (default 0)
+              --throttle-rate <r>      share of upstream 429 responses (default 0)
+              --cities <n>             cities known upstream; other keys get 404 (default 10000)
+            """;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        int threads = intOption(options, "threads", 64);
+        boolean virtualThreads = options.containsKey("virtual-threads");
+        Duration duration = Duration.ofSeconds(intOption(options, "duration", 30));
+        Duration warmup = Duration.ofSeconds(intOption(options, "warmup", 5));
+        int keys = intOption(options, "keys", 10_000);
+        ZipfGenerator keyGenerator = new ZipfGenerator(keys, doubleOption(options, "zipf", 1.0));
+        Mode mode = Mode.valueOf(options.getOrDefault("mode", "ON_DEMAND").toUpperCase(Locale.ROOT));
+
+        CountingMetrics metrics = new CountingMetrics();
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        Map<String, LongAdder> failuresByType = new ConcurrentHashMap<>();
+
+        try (WeatherApiSimulator simulator = new WeatherApiSimulator(
+                intOption(options, "cities", 10_000),
+                WeatherApiSimulator.Latency.parse(options.getOrDefault("latency", "lognormal:50,0.5")),
+                doubleOption(options, "error-rate", 0),
+                doubleOption(options, "throttle-rate", 0))) {
+            simulator.start();
+            HttpTransport transport = HttpTransport.builder()
+                    .maxIdleConnections(threads)
+                    .maxRequests(threads)
+                    .maxRequestsPerHost(threads)
+                    .build();
+            SDKConfig config = SDKConfig.builder()
+                    .mode(mode)
+                    .maxEntries(intOption(options, "cache", 1_000))
+                    .ttl(Duration.ofSeconds(intOption(options, "ttl", 600)))
+                    .virtualThreads(options.containsKey("sdk-virtual-threads"))
+                    .transport(transport)
+                    .baseUrl(simulator.baseUrl())
+                    .metrics(metrics)
+                    .build();
+            OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl("load-test", config);
+
+            System.out.printf("Running %d %s callers over %d keys for %ds (+%ds warm-up) in %s mode%n",
+                    threads, virtualThreads ? "virtual" : "platform", keys,
+                    duration.toSeconds(), warmup.toSeconds(), mode);
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long end = measureFrom + duration.toNanos();
+            ExecutorService callers = virtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(threads);
+            List<Future<?>> running = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                running.add(callers.submit(() -> {
+                    boolean measuring = false;
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        if (!measuring && now >= measureFrom) {
+                            measuring = true;
+                            metrics.startRecording();
+                        }
+                        String city = WeatherApiSimulator.CITY_PREFIX + keyGenerator.next();
+                        try {
+                            sdk.getCurrentWeather(city);
+                        } catch (SDKException e) {
+                            if (measuring) {
+                                failures.increment();
+                                // By type rather than message, since messages name the city
+                                failuresByType.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder())
+                                        .increment();
+                            }
+                        }
+                        if (measuring) latencies.record(System.nanoTime() - now);
+                    }
+                }));
+            }
+            for (Future<?> caller : running) {
+                caller.get();
+            }
+            callers.shutdown();
+            sdk.delete();
+            transport.shutdown();
+
+            report(duration, latencies, failures.sum(), failuresByType, metrics);
+            System.out.println("Simulator responses (including warm-up): " + simulator.responsesByStatus());
+        }
+    }
+
+    private static void report(Duration duration, LatencyHistogram latencies, long failures,
+                               Map<String, LongAdder> failuresByType, CountingMetrics metrics) {
+        long lookups = latencies.count();
+        long hits = metrics.hits.sum() + metrics.staleHits.sum();
+        long lookupsWithOutcome = hits + metrics.misses.sum() + metrics.negativeHits.sum();
+        System.out.printf("Lookups:      %d (%d failed)%n", lookups, failures);
+        System.out.printf("Throughput:   %.0f lookups/s%n", lookups / (double) duration.toMillis() * 1000);
+        System.out.printf("Latency (ms): p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                latencies.percentileMicros(50) / 1000.0, latencies.percentileMicros(90) / 1000.0,
+                latencies.percentileMicros(99) / 1000.0, latencies.percentileMicros(99.9) / 1000.0,
+                latencies.maxMicros() / 1000.0);
+        System.out.printf("Hit ratio:    %.2f%% (%d fresh, %d stale, %d misses, %d negative hits)%n",
+                lookupsWithOutcome == 0 ? 0 : hits * 100.0 / lookupsWithOutcome, metrics.hits.sum(),
+                metrics.staleHits.sum(), metrics.misses.sum(), metrics.negativeHits.sum());
+        Map<Integer, Long> upstream = new TreeMap<>();
+        metrics.upstreamByStatus.forEach((status, count) -> upstream.put(status, count.sum()));
+        System.out.printf("Upstream:     %d calls, by status %s%n",
+                upstream.values().stream().mapToLong(Long::longValue).sum(), upstream);
+        if (!failuresByType.isEmpty()) {
+            Map<String, Long> kinds = new TreeMap<>();
+            failuresByType.forEach((kind, count) -> kinds.put(kind, count.sum()));
+            System.out.println("Failures:     " + kinds);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new SDKException("Unexpected argument: " + args[i] + "\n" + USAGE);
+            String name = args[i].substring(2);
+            boolean flag = i + 1 == args.length || args[i + 1].startsWith("--");
+            options.put(name, flag ? "" : args[++i]);
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new SDKException("Invalid value of --" + name + ": " + value, e);
+        }
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double defaultValue) {
+        String value = options.get(name);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new SDKException("Invalid value of --" + name + ": " + value, e);
+        }
+    }
+
+    /**
+     * Counts cache outcomes and upstream calls once the first caller enters the measured period.
+     */
+    private static final class CountingMetrics implements SDKMetrics {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder negativeHits = new LongAdder();
+        private final Map<Integer, LongAdder> upstreamByStatus = new ConcurrentHashMap<>();
+        private volatile boolean recording;
+
+        void startRecording() {
+            recording = true;
+        }
+
+        @Override
+        public void cacheHit() {
+            if (recording) hits.increment();
+        }
+
+        @Override
+        public void cacheStaleHit() {
+            if (recording) staleHits.increment();
+        }
+
+        @Override
+        public void cacheMiss() {
+            if (recording) misses.increment();
+        }
+
+        @Override
+        public void cacheNegativeHit() {
+            if (recording) negativeHits.increment();
+        }
+
+        @Override
+        public void upstreamRequest(long latencyNanos, int statusCode) {
+            if (recording) upstreamByStatus.computeIfAbsent(statusCode, s -> new LongAdder()).increment();
+        }
+    }
+}
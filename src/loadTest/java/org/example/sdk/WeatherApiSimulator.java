@@ -0,0 +1,228 @@
+package org.example.sdk;
+
+import mockwebserver3.Dispatcher;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import org.example.error.SDKException;
+
+import javax.net.ServerSocketFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the OpenWeatherMap current weather endpoint ({@code /data/2.5/weather}).
+ * <p>
+ * Knows {@code cities} cities named {@code City0}, {@code City1}, ...; any other name is answered with 404,
+ * like an unknown city upstream. Each request is delayed by a sample of the latency distribution, then fails
+ * with 500 or 429 at the configured rates, and is otherwise answered with the weather of the city.
+ */
+final class WeatherApiSimulator implements Closeable {
+
+    static final String CITY_PREFIX = "City";
+
+    private static final String WEATHER_TEMPLATE = """
+            {"coord":{"lon":10.99,"lat":44.34},\
+            "weather":[{"id":802,"main":"Clouds","description":"scattered clouds","icon":"03n"}],\
+            "main":{"temp":%d.15,"feels_like":%d.57,"pressure":1025,"humidity":85},\
+            "visibility":10000,"wind":{"speed":1.38,"deg":217},"dt":%d,\
+            "sys":{"country":"IT","sunrise":1675751262,"sunset":1675787560},\
+            "timezone":3600,"id":%d,"name":"%s","cod":200}""";
+    private static final String NOT_FOUND = "{\"cod\":\"404\",\"message\":\"city not found\"}";
+    private static final String THROTTLED = "{\"cod\":429,\"message\":\"Your account is temporary blocked due to "
+            + "exceeding of requests limitation of your subscription type.\"}";
+    private static final String SERVER_ERROR = "{\"cod\":500,\"message\":\"Internal error\"}";
+
+    private final int cities;
+    private final Latency latency;
+    private final double errorRate;
+    private final double throttleRate;
+    private final MockWebServer server = new MockWebServer();
+    private final Map<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+
+    /**
+     * @param cities number of known cities
+     * @param latency delay of every response
+     * @param errorRate share of requests failing with 500, from 0 to 1
+     * @param throttleRate share of requests rejected with 429, from 0 to 1
+     */
+    WeatherApiSimulator(int cities, Latency latency, double errorRate, double throttleRate) {
+        if (cities <= 0) throw new SDKException("City count must be positive: " + cities);
+        if (errorRate < 0 || throttleRate < 0 || errorRate + throttleRate > 1) {
+            throw new SDKException("Error and throttle rates must be between 0 and 1 in total: "
+                    + errorRate + ", " + throttleRate);
+        }
+        this.cities = cities;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request.getUrl().queryParameter("q"));
+            }
+        });
+    }
+
+    void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * @return base URL to configure the SDK with
+     */
+    String baseUrl() {
+        return server.url("/data/2.5/weather").toString();
+    }
+
+    /**
+     * @return number of responses sent so far, by HTTP status
+     */
+    Map<Integer, Long> responsesByStatus() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        responses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private MockResponse respond(String city) {
+        double outcome = ThreadLocalRandom.current().nextDouble();
+        int index = cityIndex(city);
+        int status;
+        String body;
+        if (outcome < errorRate) {
+            status = 500;
+            body = SERVER_ERROR;
+        } else if (outcome < errorRate + throttleRate) {
+            status = 429;
+            body = THROTTLED;
+        } else if (index < 0) {
+            status = 404;
+            body = NOT_FOUND;
+        } else {
+            status = 200;
+            int temperature = 260 + index % 40;
+            body = WEATHER_TEMPLATE.formatted(temperature, temperature - 2, System.currentTimeMillis() / 1000,
+                    3_000_000 + index, city);
+        }
+        responses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        return new MockResponse.Builder()
+                .code(status)
+                .addHeader("Content-Type", "application/json")
+                .headersDelay(latency.sampleMicros(), TimeUnit.MICROSECONDS)
+                .body(body)
+                .build();
+    }
+
+    /**
+     * @return index of a known city, or -1 if the name is not one of them
+     */
+    private int cityIndex(String city) {
+        if (city == null || !city.startsWith(CITY_PREFIX)) return -1;
+        try {
+            int index = Integer.parseInt(city, CITY_PREFIX.length(), city.length(), 10);
+            return index < cities ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Disables Nagle's algorithm on accepted connections. The server writes the headers and the body of a response
+     * separately, so otherwise the body waits for the client's delayed ACK, adding about 40 ms to every request
+     * regardless of the configured latency.
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = new Socket();
+                    implAccept(socket);
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket socket = createServerSocket();
+            socket.bind(new InetSocketAddress(address, port), backlog);
+            return socket;
+        }
+    }
+
+    /**
+     * Distribution of the simulated upstream latency.
+     */
+    interface Latency {
+
+        long sampleMicros();
+
+        /**
+         * Parses {@code fixed:<ms>}, {@code uniform:<min ms>-<max ms>} or {@code lognormal:<median ms>,<sigma>}.
+         * A lognormal distribution has the long tail of real network latency.
+         */
+        static Latency parse(String spec) {
+            int colon = spec.indexOf(':');
+            if (colon < 0) throw new SDKException("Invalid latency distribution: " + spec);
+            String type = spec.substring(0, colon);
+            String[] args = spec.substring(colon + 1).split("[-,]");
+            try {
+                switch (type) {
+                    case "fixed" -> {
+                        long micros = millisToMicros(Double.parseDouble(args[0]));
+                        return () -> micros;
+                    }
+                    case "uniform" -> {
+                        long min = millisToMicros(Double.parseDouble(args[0]));
+                        long max = millisToMicros(Double.parseDouble(args[1]));
+                        if (max < min) throw new SDKException("Invalid latency distribution: " + spec);
+                        return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+                    }
+                    case "lognormal" -> {
+                        double mu = Math.log(millisToMicros(Double.parseDouble(args[0])));
+                        double sigma = Double.parseDouble(args[1]);
+                        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+                    }
+                    default -> throw new SDKException("Unknown latency distribution: " + type);
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new SDKException("Invalid latency distribution: " + spec, e);
+            }
+        }
+
+        private static long millisToMicros(double millis) {
+            if (millis < 0) throw new SDKException("Latency cannot be negative: " + millis);
+            return Math.round(millis * 1000);
+        }
+    }
+}
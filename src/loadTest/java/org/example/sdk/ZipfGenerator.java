@@ -0,0 +1,37 @@
+package org.example.sdk;
+
+import org.example.error.SDKException;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws key ranks from 0 to {@code n - 1} following a Zipf distribution: rank {@code k} is drawn with a
+ * probability proportional to {@code 1 / (k + 1)^exponent}. An exponent of 0 draws uniformly; around 1,
+ * a few popular keys take most lookups, like city popularity in real traffic.
+ * <p>
+ * The cumulative distribution is computed once, so each draw is a binary search. Thread-safe.
+ */
+final class ZipfGenerator {
+
+    private final double[] cumulative;
+
+    ZipfGenerator(int n, double exponent) {
+        if (n <= 0) throw new SDKException("Key count must be positive: " + n);
+        if (exponent < 0) throw new SDKException("Zipf exponent cannot be negative: " + exponent);
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    int next() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
@@ -2,8 +2,6 @@ package org.example.cache;
 
 import org.example.model.WeatherData;
 
-import java.time.Instant;
-
 /**
  * Lightweight container for cached WeatherData that stores the moment the data was received.
  */
@@ -13,9 +11,21 @@ public class CacheEntry {
 
     private final long receiptTime; // time received in milliseconds
 
+    /**
+     * Second-chance bit for the CLOCK eviction in {@link WeatherCache}: set on read, cleared by the evictor.
+     */
+    volatile boolean referenced;
+
     CacheEntry(WeatherData data) {
+        this(data, System.currentTimeMillis());
+    }
+
+    /**
+     * @param receiptTime when the data was received from the API, in epoch milliseconds
+     */
+    public CacheEntry(WeatherData data, long receiptTime) {
         this.data = data;
-        this.receiptTime = Instant.now().toEpochMilli();
+        this.receiptTime = receiptTime;
     }
 
     public WeatherData getData() {
@@ -0,0 +1,114 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves and restores the content of a {@link WeatherCache} to a local file, so a restarted SDK starts warm.
+ * <p>
+ * The file is written through a memory-mapped region sized exactly from the entries, into a temporary file
+ * of its own that atomically replaces the previous snapshot, so concurrent writers cannot corrupt each other.
+ * Each record keeps the entry's receipt time, so freshness is evaluated against the original upstream
+ * response, not against the restore.
+ */
+public final class CacheSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshot.class);
+    private static final int MAGIC = 0x4F574D43; // "OWMC"
+    private static final int VERSION = 2; // 2: city id
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+
+    private CacheSnapshot() {}
+
+    /**
+     * Writes all entries of the cache to the given file, replacing any previous snapshot.
+     *
+     * @return number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public static int save(WeatherCache cache, Path file) throws IOException {
+        List<String> keys = new ArrayList<>();
+        List<CacheEntry> entries = new ArrayList<>();
+        List<WeatherData> data = new ArrayList<>();
+        long size = HEADER_SIZE;
+        // Entries are captured once: the sizes below must match exactly what gets written
+        for (String key : cache.keySet()) {
+            CacheEntry entry = cache.peek(key);
+            if (entry == null) continue;
+            WeatherData weather = entry.getData();
+            keys.add(key);
+            entries.add(entry);
+            data.add(weather);
+            size += WeatherDataCodec.sizeOf(key) + Long.BYTES + WeatherDataCodec.sizeOf(weather);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Cache snapshot too large: " + size + " bytes");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC);
+                buffer.putInt(VERSION);
+                buffer.putInt(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    WeatherDataCodec.writeString(buffer, keys.get(i));
+                    buffer.putLong(entries.get(i).getReceiptTime());
+                    WeatherDataCodec.write(buffer, data.get(i));
+                }
+                buffer.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Restores entries from a snapshot into the cache. Entries already present in the cache win.
+     * A missing file is not an error; a corrupt one is logged and ignored.
+     *
+     * @param includeExpired also restore entries that are too old to be served, e.g. to seed the poller
+     * @return number of entries restored
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static int load(WeatherCache cache, Path file, boolean includeExpired) throws IOException {
+        if (!Files.isRegularFile(file)) return 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Ignoring cache snapshot {}: unknown format", file);
+                return 0;
+            }
+            int count = buffer.getInt();
+            int restored = 0;
+            for (int i = 0; i < count; i++) {
+                String key = WeatherDataCodec.readString(buffer);
+                long receiptTime = buffer.getLong();
+                WeatherData data = WeatherDataCodec.read(buffer);
+                if (cache.restore(key, data, receiptTime, includeExpired)) restored++;
+            }
+            return restored;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring truncated or corrupt cache snapshot {}", file);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache entry that keeps weather data as a single flat record of primitives instead of the WeatherData
+ * object graph (list, condition, temperature, wind and sys objects). Condition strings are interned in a
+ * shared {@link StringDictionary}.
+ * <p>
+ * {@link #getData()} builds a new WeatherData view on every call, so callers never share mutable state
+ * with the cache.
+ */
+final class CompactCacheEntry extends CacheEntry {
+
+    private static final byte HAS_TEMPERATURE = 1;
+    private static final byte HAS_WIND = 1 << 1;
+    private static final byte HAS_SYS = 1 << 2;
+    private static final byte HAS_WEATHER_LIST = 1 << 3;
+
+    private final byte present;
+    private final double temp;
+    private final double feelsLike;
+    private final double windSpeed;
+    private final int visibility;
+    private final int timezone;
+    private final long datetime;
+    private final long cityId;
+    private final long sunrise;
+    private final long sunset;
+    private final String name;
+    // main/description pairs of all conditions, flattened; usually exactly one pair
+    private final String[] conditions;
+
+    CompactCacheEntry(WeatherData data, long receiptTime, StringDictionary dictionary) {
+        super(null, receiptTime);
+        byte flags = 0;
+        WeatherData.TemperatureInfo temperature = data.getTemperature();
+        if (temperature != null) flags |= HAS_TEMPERATURE;
+        this.temp = temperature != null ? temperature.getTemp() : 0;
+        this.feelsLike = temperature != null ? temperature.getFeelsLike() : 0;
+        WeatherData.WindInfo wind = data.getWind();
+        if (wind != null) flags |= HAS_WIND;
+        this.windSpeed = wind != null ? wind.getSpeed() : 0;
+        WeatherData.SysInfo sys = data.getSys();
+        if (sys != null) flags |= HAS_SYS;
+        this.sunrise = sys != null ? sys.getSunrise() : 0;
+        this.sunset = sys != null ? sys.getSunset() : 0;
+        this.visibility = data.getVisibility();
+        this.timezone = data.getTimezone();
+        this.datetime = data.getDatetime();
+        this.cityId = data.getCityId();
+        this.name = data.getName();
+
+        List<WeatherData.WeatherInfo> weatherList = data.getWeatherList();
+        if (weatherList != null) {
+            flags |= HAS_WEATHER_LIST;
+            conditions = new String[weatherList.size() * 2];
+            for (int i = 0; i < weatherList.size(); i++) {
+                WeatherData.WeatherInfo info = weatherList.get(i);
+                conditions[2 * i] = dictionary.intern(info.getMain());
+                conditions[2 * i + 1] = dictionary.intern(info.getDescription());
+            }
+        } else {
+            conditions = null;
+        }
+        this.present = flags;
+    }
+
+    @Override
+    public WeatherData getData() {
+        WeatherData data = new WeatherData();
+        if ((present & HAS_TEMPERATURE) != 0) {
+            WeatherData.TemperatureInfo temperature = new WeatherData.TemperatureInfo();
+            temperature.setTemp(temp);
+            temperature.setFeelsLike(feelsLike);
+            data.setTemperature(temperature);
+        }
+        if ((present & HAS_WIND) != 0) {
+            WeatherData.WindInfo wind = new WeatherData.WindInfo();
+            wind.setSpeed(windSpeed);
+            data.setWind(wind);
+        }
+        if ((present & HAS_SYS) != 0) {
+            WeatherData.SysInfo sys = new WeatherData.SysInfo();
+            sys.setSunrise(sunrise);
+            sys.setSunset(sunset);
+            data.setSys(sys);
+        }
+        if ((present & HAS_WEATHER_LIST) != 0) {
+            List<WeatherData.WeatherInfo> weatherList = new ArrayList<>(conditions.length / 2);
+            for (int i = 0; i < conditions.length; i += 2) {
+                WeatherData.WeatherInfo info = new WeatherData.WeatherInfo();
+                info.setMain(conditions[i]);
+                info.setDescription(conditions[i + 1]);
+                weatherList.add(info);
+            }
+            data.setWeatherList(weatherList);
+        }
+        data.setVisibility(visibility);
+        data.setTimezone(timezone);
+        data.setDatetime(datetime);
+        data.setCityId(cityId);
+        data.setName(name);
+        return data;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * {@link RemoteCacheTier} storing one file per city in a directory, e.g. on a volume shared by the
+ * replicas of a service.
+ * <p>
+ * Files are named after the SHA-256 hash of the key and hold the key, the receipt time and the data in the
+ * binary format of {@link CacheSnapshot}. They are written to a temporary file and moved into place
+ * atomically, so readers never see a partial entry. Files are replaced on every refresh but never deleted;
+ * clean up the directory externally if the set of cities changes over time.
+ */
+public class FileCacheTier implements RemoteCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCacheTier.class);
+    private static final int MAGIC = 0x4F574D45; // "OWME"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path directory;
+
+    /**
+     * @param directory where entries are stored; created if missing
+     */
+    public FileCacheTier(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public CacheEntry get(String key) throws IOException {
+        Path file = fileOf(key);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Ignoring cache entry {}: unknown format", file);
+                return null;
+            }
+            // A hash collision is not worth handling beyond not serving the wrong city
+            if (!key.equals(WeatherDataCodec.readString(buffer))) return null;
+            long receiptTime = buffer.getLong();
+            return new CacheEntry(WeatherDataCodec.read(buffer), receiptTime);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring truncated or corrupt cache entry {}", file);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, WeatherData data, long receiptTime) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + WeatherDataCodec.sizeOf(key) + Long.BYTES
+                + WeatherDataCodec.sizeOf(data));
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        WeatherDataCodec.writeString(buffer, key);
+        buffer.putLong(receiptTime);
+        WeatherDataCodec.write(buffer, data);
+
+        Path file = fileOf(key);
+        // Unique per writer: other replicas may be replacing the same entry right now
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, buffer.array());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path fileOf(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + ".entry");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.cache;
+
+import org.example.model.ForecastSeries;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cache of 5-day/3-hour forecasts by city and issue window.
+ * <p>
+ * OpenWeatherMap issues a new forecast every {@link #ISSUE_INTERVAL}. An entry is therefore only served within
+ * the window in which it was received, and for at most the TTL: the first lookup in a new window loads the
+ * new forecast instead of serving the previous one, which would have lost a point to the past. Bounded
+ * separately from {@link WeatherCache}, with the same CLOCK approximation of LRU eviction: reads only set a
+ * flag on the entry and never take a lock. City names are normalized like in {@link WeatherCache}.
+ */
+public class ForecastCache {
+
+    public static final Duration ISSUE_INTERVAL = Duration.ofHours(3);
+    private static final long ISSUE_INTERVAL_MS = ISSUE_INTERVAL.toMillis();
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // CLOCK hand: every key present in the map appears here exactly once
+    private final Queue<String> clock = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param maxSize maximum number of cities whose forecast is kept
+     * @param ttl how long a forecast is served, within its issue window
+     */
+    public ForecastCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttl.toMillis();
+    }
+
+    /**
+     * @return the cached forecast for the city, or null if there is none for the current issue window
+     */
+    public ForecastSeries get(String city) {
+        Entry entry = entries.get(WeatherCache.norm(city));
+        if (entry == null) return null;
+        if (!entry.referenced) entry.referenced = true;
+        long now = System.currentTimeMillis();
+        if (window(entry.receiptTime) != window(now) || now - entry.receiptTime >= ttlMs) return null;
+        return entry.series;
+    }
+
+    public void put(String city, ForecastSeries series) {
+        String key = WeatherCache.norm(city);
+        Entry entry = new Entry(series, System.currentTimeMillis());
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            // A reload keeps the recency of the entry it replaces
+            entry.referenced = previous.referenced;
+            return;
+        }
+        clock.offer(key);
+        evictIfNeeded();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize) {
+            String key = clock.poll();
+            if (key == null) return;
+            Entry entry = entries.get(key);
+            if (entry == null) continue;
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.offer(key);
+            } else if (!entries.remove(key, entry)) {
+                // Replaced concurrently: the key is still live, keep it on the clock
+                clock.offer(key);
+            }
+        }
+    }
+
+    private static long window(long timeMs) {
+        return timeMs / ISSUE_INTERVAL_MS;
+    }
+
+    private static final class Entry {
+
+        private final ForecastSeries series;
+        private final long receiptTime;
+        private volatile boolean referenced; // second-chance bit: set on read, cleared by the evictor
+
+        Entry(ForecastSeries series, long receiptTime) {
+            this.series = series;
+            this.receiptTime = receiptTime;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate, decaying access counter for cache keys (a count-min sketch).
+ * <p>
+ * Each key maps to one counter in each of four rows; its frequency is the smallest of them, so estimates
+ * can only err upwards, by collisions. Memory is fixed regardless of the number of distinct keys. All
+ * counters are halved every ten accesses per counter in a row, and on {@link #age()}, so that the estimate
+ * follows recent popularity rather than all-time counts. Updates are lock-free and may race; the estimate
+ * stays approximate either way.
+ */
+public final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final int width;
+    private final int sampleSize;
+    private final AtomicIntegerArray table;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedKeys number of distinct keys expected to be tracked at once, e.g. the cache size
+     */
+    public FrequencySketch(int expectedKeys) {
+        // Smallest power of two not below the expected key count
+        this.width = Math.max(16, Integer.highestOneBit(Math.max(1, expectedKeys - 1)) << 1);
+        this.sampleSize = 10 * width;
+        this.table = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    /**
+     * Records one access to the key.
+     */
+    public void increment(String key) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row++) {
+            table.incrementAndGet(indexOf(hash, row));
+        }
+        if (additions.incrementAndGet() == sampleSize) {
+            halve();
+            additions.addAndGet(-sampleSize / 2);
+        }
+    }
+
+    /**
+     * @return the estimated number of recent accesses to the key; 0 if it was not accessed recently
+     */
+    public int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table.get(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves all counts, so that keys no longer accessed fade out over time.
+     */
+    public void age() {
+        halve();
+        additions.updateAndGet(n -> n / 2);
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length(); i++) {
+            table.updateAndGet(i, count -> count >>> 1);
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.cache;
+
+/**
+ * Age class of a cache entry relative to the cache's TTL policy.
+ */
+public enum Freshness {
+
+    /** Younger than the refresh-ahead threshold: serve as is. */
+    FRESH,
+
+    /** Still within TTL but past the refresh-ahead threshold: serve and reload in the background. */
+    REFRESH_DUE,
+
+    /** Past TTL but within the stale-while-revalidate window: serve and reload in the background. */
+    STALE,
+
+    /** Too old to serve (or missing): the caller has to wait for a reload. */
+    EXPIRED
+}
@@ -0,0 +1,33 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RemoteCacheTier} held in the heap of this process: a stand-in for a shared cache when several SDK
+ * instances run in the same JVM, e.g. in tests simulating multiple replicas.
+ */
+public class InMemoryCacheTier implements RemoteCacheTier {
+
+    private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public CacheEntry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Keeps the more recent of the stored and the given entry, so that a slow writer cannot roll data back.
+     */
+    @Override
+    public void put(String key, WeatherData data, long receiptTime) {
+        CacheEntry entry = new CacheEntry(data, receiptTime);
+        entries.merge(key, entry,
+                (previous, next) -> next.getReceiptTime() >= previous.getReceiptTime() ? next : previous);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
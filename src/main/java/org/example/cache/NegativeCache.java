@@ -0,0 +1,96 @@
+package org.example.cache;
+
+import org.example.error.SDKException;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Short-lived cache of failed lookups, so that repeated requests for unknown cities do not each cost an
+ * upstream call.
+ * - Only deterministic errors are kept: HTTP 400 and 404 (see {@link #isCacheable(SDKException)}).
+ *   Network errors, throttling and server errors may succeed on the next attempt and are never cached.
+ * - Bounded separately from {@link WeatherCache}, so that a flood of bad city names cannot evict good entries.
+ *   When full, the oldest failure is dropped.
+ * - City names are normalized like in {@link WeatherCache}.
+ */
+public class NegativeCache {
+
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final ConcurrentHashMap<String, Failure> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param maxSize maximum number of cached failures
+     * @param ttl how long a failure is replayed instead of asking the API again
+     */
+    public NegativeCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttl.toMillis();
+    }
+
+    /**
+     * @return whether the error says the city cannot be served at all, rather than not right now
+     */
+    public static boolean isCacheable(SDKException error) {
+        int status = error.getStatusCode();
+        return status == BAD_REQUEST || status == NOT_FOUND;
+    }
+
+    /**
+     * @return a new exception equal to the cached failure for the city, or null if there is none or it expired
+     */
+    public SDKException get(String city) {
+        Failure failure = entries.get(WeatherCache.norm(city));
+        if (failure == null || System.currentTimeMillis() - failure.receiptTime > ttlMs) return null;
+        // Every caller gets its own instance: exceptions are mutable (stack trace, suppressed)
+        return new SDKException(failure.message, failure.statusCode);
+    }
+
+    /**
+     * Remembers the failure if it is {@link #isCacheable(SDKException) cacheable}.
+     */
+    public void put(String city, SDKException error) {
+        if (!isCacheable(error)) return;
+        String key = WeatherCache.norm(city);
+        // Expired failures stay in the map until they are replaced or evicted, so a key is queued only once
+        if (entries.put(key, new Failure(error.getMessage(), error.getStatusCode())) == null) {
+            insertionOrder.offer(key);
+            while (entries.size() > maxSize) {
+                String oldest = insertionOrder.poll();
+                if (oldest == null) break;
+                entries.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * Forgets the failure for a city that was just loaded successfully.
+     */
+    public void invalidate(String city) {
+        String key = WeatherCache.norm(city);
+        if (entries.remove(key) != null) insertionOrder.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Failure {
+
+        private final String message;
+        private final int statusCode;
+        private final long receiptTime = System.currentTimeMillis();
+
+        Failure(String message, int statusCode) {
+            this.message = message;
+            this.statusCode = statusCode;
+        }
+    }
+}
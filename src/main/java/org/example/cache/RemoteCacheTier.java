@@ -0,0 +1,34 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+
+import java.io.IOException;
+
+/**
+ * Second cache tier shared by several SDK instances, typically the replicas of a service.
+ * <p>
+ * {@link WeatherCache} consults it when its own entry is missing or expired, and writes every
+ * fetched result through to it, so that a city fetched by one replica is served by all of them. Entries
+ * keep the receipt time of the original fetch, so every replica judges their freshness the same way.
+ * <p>
+ * Implementations must be thread-safe. Failures are logged by the cache and treated as a miss; they never
+ * fail a lookup.
+ */
+public interface RemoteCacheTier {
+
+    /**
+     * @param key normalized cache key
+     * @return the shared entry, or null if there is none
+     * @throws IOException if the tier cannot be reached
+     */
+    CacheEntry get(String key) throws IOException;
+
+    /**
+     * Stores an entry, replacing any previous entry for the key.
+     *
+     * @param key normalized cache key
+     * @param receiptTime when the data was received from the API, in epoch milliseconds
+     * @throws IOException if the tier cannot be reached
+     */
+    void put(String key, WeatherData data, long receiptTime) throws IOException;
+}
@@ -0,0 +1,24 @@
+package org.example.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded intern pool for the small vocabulary of weather condition strings ("Clouds", "light rain", ...),
+ * so that compact entries share one instance per distinct value instead of holding a copy each.
+ */
+final class StringDictionary {
+
+    // OpenWeatherMap knows ~60 conditions; the bound only protects against unexpected vocabularies
+    private static final int MAX_SIZE = 4096;
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+    String intern(String value) {
+        if (value == null) return null;
+        String existing = values.get(value);
+        if (existing != null) return existing;
+        if (values.size() >= MAX_SIZE) return value;
+        existing = values.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -1,56 +1,348 @@
 package org.example.cache;
 
+import org.example.metrics.SDKMetrics;
 import org.example.model.WeatherData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Simple LRU cache for weather data with TTL and case-insensitive city keys.
- * - Keeps at most MAX_SIZE entries (LRU eviction).
- * - Entries older than MAX_AGE_MS are considered stale and removed on access.
+ * Thread-safe cache for weather data with TTL, approximate LRU eviction and case-insensitive city keys.
+ * - Keeps at most maxSize entries (10 by default). Eviction uses the CLOCK (second-chance) approximation of LRU:
+ *   reads only set a flag on the entry, so lookups never take a lock or reorder a shared list.
+ * - Entries older than maxAge (10 minutes by default) are considered stale and are not returned by getFresh.
+ *   An optional refresh-ahead threshold and stale-while-revalidate window classify entries via
+ *   {@link #freshness(CacheEntry)}, so callers can serve them while reloading in the background.
  * - City names are normalized to lower-case, so lookups are case-insensitive.
+ * - Optionally stores entries in compact form ({@link CompactCacheEntry}) to reduce the heap footprint
+ *   of large caches.
+ * - Optionally backed by a {@link RemoteCacheTier} shared with other instances: entries that are missing
+ *   or expired are looked up there before the caller goes upstream, and every put is written through.
+ *   Entries still being served (due for a refresh or stale) are not, so that the read path stays local.
  */
-public class WeatherCache extends LinkedHashMap<String, CacheEntry> {
+public class WeatherCache {
 
+    private static final Logger logger = LoggerFactory.getLogger(WeatherCache.class);
     private static final int MAX_SIZE = 10;
     private static final long MAX_AGE_MS = 10L * 60L * 1000L; // 10 minutes
-    private static final float LOAD_FACTOR = 0.75f;
-    private static final boolean ACCESS_ORDER_LRU = true;
+
+    private final int maxSize;
+    private final long maxAgeMs;
+    private final long refreshAheadMs;
+    private final long staleWhileRevalidateMs;
+    private final SDKMetrics metrics;
+    private final StringDictionary dictionary; // null unless compact storage is enabled
+    private final RemoteCacheTier remoteTier; // null if not configured
+    private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    // CLOCK hand: every key present in the map appears here exactly once
+    private final Queue<String> clock = new ConcurrentLinkedQueue<>();
 
     public WeatherCache() {
-        super(MAX_SIZE, LOAD_FACTOR, ACCESS_ORDER_LRU);
+        this(builder());
+    }
+
+    /**
+     * @param maxSize maximum number of cached cities
+     * @param maxAge how long an entry stays fresh
+     */
+    public WeatherCache(int maxSize, Duration maxAge) {
+        this(builder().maxSize(maxSize).maxAge(maxAge));
     }
 
-    private String norm(String city) {
+    /**
+     * @param maxSize maximum number of cached cities
+     * @param maxAge how long an entry stays fresh
+     * @param refreshAheadFactor fraction of maxAge after which an entry is {@link Freshness#REFRESH_DUE};
+     *                           1.0 disables refresh-ahead
+     * @param staleWhileRevalidate how long past maxAge an entry may still be served as {@link Freshness#STALE}
+     */
+    public WeatherCache(int maxSize, Duration maxAge, double refreshAheadFactor, Duration staleWhileRevalidate) {
+        this(builder().maxSize(maxSize).maxAge(maxAge)
+                .refreshAheadFactor(refreshAheadFactor)
+                .staleWhileRevalidate(staleWhileRevalidate));
+    }
+
+    private WeatherCache(Builder builder) {
+        this.maxSize = builder.maxSize;
+        this.maxAgeMs = builder.maxAge.toMillis();
+        this.refreshAheadMs = (long) (maxAgeMs * builder.refreshAheadFactor);
+        this.staleWhileRevalidateMs = builder.staleWhileRevalidate.toMillis();
+        this.metrics = builder.metrics;
+        this.dictionary = builder.compactStorage ? new StringDictionary() : null;
+        this.remoteTier = builder.remoteTier;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static String norm(String city) {
         return city == null ? null : city.toLowerCase();
     }
 
     /**
      * Returns a fresh CacheEntry for the normalized city name or null if missing/stale.
-     * Stale entries are removed.
+     * Stale entries stay in place until they are overwritten or evicted, so the poller can still refresh them.
      */
     public CacheEntry getFresh(String city) {
-        String key = norm(city);
-        CacheEntry entry = super.get(key);
-        if (entry != null && (Instant.now().toEpochMilli() - entry.getReceiptTime()) < MAX_AGE_MS) {
+        CacheEntry entry = getEntry(city);
+        if (entry != null && (System.currentTimeMillis() - entry.getReceiptTime()) < maxAgeMs) {
             return entry;
         }
-        // Remove stale or missing entry
-        super.remove(key);
         return null;
     }
 
     /**
-     * Put a WeatherData into a cache under a normalized city key.
+     * Returns the CacheEntry for the normalized city name regardless of its age, or null if missing.
+     * Use {@link #freshness(CacheEntry)} to decide whether it can be served.
+     */
+    public CacheEntry getEntry(String city) {
+        String key = norm(city);
+        CacheEntry entry = entries.get(key);
+        if (remoteTier != null && freshness(entry) == Freshness.EXPIRED) {
+            entry = adoptRemote(key, entry, Long.MIN_VALUE);
+        }
+        if (entry == null) return null;
+        // Avoid a shared write when the bit is already set: keeps hot reads free of cache-line contention
+        if (!entry.referenced) entry.referenced = true;
+        return entry;
+    }
+
+    /**
+     * Read-path variant of {@link #getEntry(String)} that also records the outcome in the metrics:
+     * a hit for a servable entry within TTL, a stale hit within the stale-while-revalidate window, a miss otherwise.
+     */
+    public CacheEntry lookup(String city) {
+        CacheEntry entry = getEntry(city);
+        switch (freshness(entry)) {
+            case FRESH, REFRESH_DUE -> metrics.cacheHit();
+            case STALE -> metrics.cacheStaleHit();
+            case EXPIRED -> metrics.cacheMiss();
+        }
+        return entry;
+    }
+
+    /**
+     * Classifies an entry by age against this cache's TTL, refresh-ahead and stale-while-revalidate settings.
+     */
+    public Freshness freshness(CacheEntry entry) {
+        if (entry == null) return Freshness.EXPIRED;
+        long age = System.currentTimeMillis() - entry.getReceiptTime();
+        if (age < refreshAheadMs) return Freshness.FRESH;
+        if (age < maxAgeMs) return Freshness.REFRESH_DUE;
+        if (age < maxAgeMs + staleWhileRevalidateMs) return Freshness.STALE;
+        return Freshness.EXPIRED;
+    }
+
+    /**
+     * Returns the entry of the remote tier if it was received at or after the given time, e.g. because
+     * another instance refreshed the city in the current polling cycle. The entry is also cached locally.
+     *
+     * @return the remote entry, or null if there is none that recent or no remote tier is configured
+     */
+    public CacheEntry getRemoteEntry(String city, long receivedSince) {
+        if (remoteTier == null) return null;
+        String key = norm(city);
+        CacheEntry local = entries.get(key);
+        CacheEntry entry = adoptRemote(key, local, receivedSince);
+        return entry == local ? null : entry;
+    }
+
+    /**
+     * Put a WeatherData into a cache under a normalized city key, and into the remote tier if configured.
      */
     public void put(String city, WeatherData data) {
-        super.put(norm(city), new CacheEntry(data));
+        String key = norm(city);
+        long receiptTime = System.currentTimeMillis();
+        writeThrough(key, data, receiptTime);
+        CacheEntry entry = newEntry(data, receiptTime);
+        CacheEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            // A refresh keeps the recency of the entry it replaces
+            entry.referenced = previous.referenced;
+            return;
+        }
+        clock.offer(key);
+        evictIfNeeded();
     }
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
-        return size() > MAX_SIZE;
+    private void writeThrough(String key, WeatherData data, long receiptTime) {
+        if (remoteTier == null) return;
+        try {
+            remoteTier.put(key, data, receiptTime);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write {} to the remote cache tier: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the local entry with the remote one if the remote one is more recent and was received at or
+     * after the given time.
+     *
+     * @return the entry now cached locally for the key (the given local entry if nothing was adopted)
+     */
+    private CacheEntry adoptRemote(String key, CacheEntry local, long receivedSince) {
+        CacheEntry remote;
+        try {
+            remote = remoteTier.get(key);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read {} from the remote cache tier: {}", key, e.getMessage());
+            return local;
+        }
+        if (remote == null || remote.getReceiptTime() < receivedSince) return local;
+        if (local != null && remote.getReceiptTime() <= local.getReceiptTime()) return local;
+        CacheEntry entry = newEntry(remote.getData(), remote.getReceiptTime());
+        // Do not overwrite a put that raced with the remote read
+        if (local == null) {
+            CacheEntry raced = entries.putIfAbsent(key, entry);
+            if (raced != null) return raced;
+            clock.offer(key);
+            evictIfNeeded();
+        } else {
+            if (!entries.replace(key, local, entry)) return entries.get(key);
+            entry.referenced = local.referenced;
+        }
+        return entry;
+    }
+
+    /**
+     * Inserts an entry with its original receipt time (e.g. from a snapshot) unless the key is already cached.
+     *
+     * @param key normalized city key
+     * @param includeExpired also accept entries too old to be served
+     * @return true if the entry was inserted
+     */
+    boolean restore(String key, WeatherData data, long receiptTime, boolean includeExpired) {
+        CacheEntry entry = newEntry(data, receiptTime);
+        if (!includeExpired && freshness(entry) == Freshness.EXPIRED) return false;
+        if (entries.putIfAbsent(key, entry) != null) return false;
+        clock.offer(key);
+        evictIfNeeded();
+        return true;
+    }
+
+    /**
+     * Returns the entry for a normalized key without counting it as an access, e.g. to inspect its age.
+     */
+    public CacheEntry peek(String key) {
+        return entries.get(key);
+    }
+
+    private CacheEntry newEntry(WeatherData data, long receiptTime) {
+        return dictionary != null
+                ? new CompactCacheEntry(data, receiptTime, dictionary)
+                : new CacheEntry(data, receiptTime);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a weakly consistent, read-only view of the cached (normalized) city names.
+     */
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize) {
+            String key = clock.poll();
+            if (key == null) return;
+            CacheEntry entry = entries.get(key);
+            if (entry == null) continue;
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.offer(key);
+            } else if (entries.remove(key, entry)) {
+                metrics.cacheEviction();
+            } else {
+                // Replaced concurrently: the key is still live, keep it on the clock
+                clock.offer(key);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private int maxSize = MAX_SIZE;
+        private Duration maxAge = Duration.ofMillis(MAX_AGE_MS);
+        private double refreshAheadFactor = 1.0;
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private SDKMetrics metrics = SDKMetrics.NOOP;
+        private boolean compactStorage;
+        private RemoteCacheTier remoteTier;
+
+        private Builder() {}
+
+        /**
+         * @param maxSize maximum number of cached cities
+         */
+        public Builder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param maxAge how long an entry stays fresh
+         */
+        public Builder maxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * @param refreshAheadFactor fraction of maxAge after which an entry is {@link Freshness#REFRESH_DUE};
+         *                           1.0 (the default) disables refresh-ahead
+         */
+        public Builder refreshAheadFactor(double refreshAheadFactor) {
+            this.refreshAheadFactor = refreshAheadFactor;
+            return this;
+        }
+
+        /**
+         * @param staleWhileRevalidate how long past maxAge an entry may still be served as {@link Freshness#STALE}
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        /**
+         * @param metrics receives lookup outcomes from {@link #lookup(String)} and evictions
+         */
+        public Builder metrics(SDKMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param compactStorage store entries as flat primitive records with interned condition strings;
+         *                       {@link CacheEntry#getData()} then builds a new WeatherData view on every call
+         */
+        public Builder compactStorage(boolean compactStorage) {
+            this.compactStorage = compactStorage;
+            return this;
+        }
+
+        /**
+         * @param remoteTier second tier shared with other instances, or null for none (the default)
+         */
+        public Builder remoteTier(RemoteCacheTier remoteTier) {
+            this.remoteTier = remoteTier;
+            return this;
+        }
+
+        public WeatherCache build() {
+            return new WeatherCache(this);
+        }
     }
 }
@@ -0,0 +1,160 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link WeatherData}, used for cache persistence.
+ * <p>
+ * Layout: a presence byte for the optional parts, fixed-width primitives, then length-prefixed UTF-8
+ * strings (length -1 for null). {@link #sizeOf(WeatherData)} computes the exact encoded size without
+ * encoding, so callers can size a mapped region up front.
+ */
+final class WeatherDataCodec {
+
+    private static final byte HAS_TEMPERATURE = 1;
+    private static final byte HAS_WIND = 1 << 1;
+    private static final byte HAS_SYS = 1 << 2;
+    private static final byte HAS_WEATHER_LIST = 1 << 3;
+
+    private WeatherDataCodec() {}
+
+    static int sizeOf(WeatherData data) {
+        int size = 1 + Integer.BYTES * 2 + Long.BYTES * 2; // flags, visibility, timezone, datetime, city id
+        if (data.getTemperature() != null) size += Double.BYTES * 2;
+        if (data.getWind() != null) size += Double.BYTES;
+        if (data.getSys() != null) size += Long.BYTES * 2;
+        size += sizeOf(data.getName());
+        List<WeatherData.WeatherInfo> weatherList = data.getWeatherList();
+        if (weatherList != null) {
+            size += Integer.BYTES;
+            for (WeatherData.WeatherInfo info : weatherList) {
+                size += sizeOf(info.getMain()) + sizeOf(info.getDescription());
+            }
+        }
+        return size;
+    }
+
+    static void write(ByteBuffer buffer, WeatherData data) {
+        WeatherData.TemperatureInfo temperature = data.getTemperature();
+        WeatherData.WindInfo wind = data.getWind();
+        WeatherData.SysInfo sys = data.getSys();
+        List<WeatherData.WeatherInfo> weatherList = data.getWeatherList();
+        byte flags = 0;
+        if (temperature != null) flags |= HAS_TEMPERATURE;
+        if (wind != null) flags |= HAS_WIND;
+        if (sys != null) flags |= HAS_SYS;
+        if (weatherList != null) flags |= HAS_WEATHER_LIST;
+
+        buffer.put(flags);
+        buffer.putInt(data.getVisibility());
+        buffer.putInt(data.getTimezone());
+        buffer.putLong(data.getDatetime());
+        buffer.putLong(data.getCityId());
+        if (temperature != null) {
+            buffer.putDouble(temperature.getTemp());
+            buffer.putDouble(temperature.getFeelsLike());
+        }
+        if (wind != null) buffer.putDouble(wind.getSpeed());
+        if (sys != null) {
+            buffer.putLong(sys.getSunrise());
+            buffer.putLong(sys.getSunset());
+        }
+        writeString(buffer, data.getName());
+        if (weatherList != null) {
+            buffer.putInt(weatherList.size());
+            for (WeatherData.WeatherInfo info : weatherList) {
+                writeString(buffer, info.getMain());
+                writeString(buffer, info.getDescription());
+            }
+        }
+    }
+
+    static WeatherData read(ByteBuffer buffer) {
+        WeatherData data = new WeatherData();
+        byte flags = buffer.get();
+        data.setVisibility(buffer.getInt());
+        data.setTimezone(buffer.getInt());
+        data.setDatetime(buffer.getLong());
+        data.setCityId(buffer.getLong());
+        if ((flags & HAS_TEMPERATURE) != 0) {
+            WeatherData.TemperatureInfo temperature = new WeatherData.TemperatureInfo();
+            temperature.setTemp(buffer.getDouble());
+            temperature.setFeelsLike(buffer.getDouble());
+            data.setTemperature(temperature);
+        }
+        if ((flags & HAS_WIND) != 0) {
+            WeatherData.WindInfo wind = new WeatherData.WindInfo();
+            wind.setSpeed(buffer.getDouble());
+            data.setWind(wind);
+        }
+        if ((flags & HAS_SYS) != 0) {
+            WeatherData.SysInfo sys = new WeatherData.SysInfo();
+            sys.setSunrise(buffer.getLong());
+            sys.setSunset(buffer.getLong());
+            data.setSys(sys);
+        }
+        data.setName(readString(buffer));
+        if ((flags & HAS_WEATHER_LIST) != 0) {
+            int count = buffer.getInt();
+            List<WeatherData.WeatherInfo> weatherList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                WeatherData.WeatherInfo info = new WeatherData.WeatherInfo();
+                info.setMain(readString(buffer));
+                info.setDescription(readString(buffer));
+                weatherList.add(info);
+            }
+            data.setWeatherList(weatherList);
+        }
+        return data;
+    }
+
+    static int sizeOf(String value) {
+        return Integer.BYTES + (value == null ? 0 : utf8Length(value));
+    }
+
+    static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        if (length > buffer.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1; // unpaired surrogate, encoded as '?'
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter: the n-th retry waits a random time between half and all of
+ * {@code min(max, initial * 2^n)}, so that clients failing together do not retry together.
+ */
+public final class Backoff {
+
+    private final long initialNanos;
+    private final long maxNanos;
+
+    /**
+     * @param initial base delay of the first retry
+     * @param max upper bound of any delay
+     */
+    public Backoff(Duration initial, Duration max) {
+        if (initial.isNegative() || initial.isZero() || max.compareTo(initial) < 0) {
+            throw new IllegalArgumentException("Initial delay must be positive and not exceed the maximum");
+        }
+        this.initialNanos = initial.toNanos();
+        this.maxNanos = max.toNanos();
+    }
+
+    /**
+     * @param attempt zero-based retry number
+     * @return delay before that retry, in nanoseconds
+     */
+    public long delayNanos(int attempt) {
+        long ceiling = initialNanos;
+        for (int i = 0; i < attempt && ceiling < maxNanos; i++) {
+            ceiling <<= 1;
+        }
+        ceiling = Math.min(ceiling, maxNanos);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.concurrent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * <p>
+ * CLOSED lets every call through and opens after {@code failureThreshold} failures in a row. OPEN rejects
+ * calls until {@code openDuration} has elapsed, then moves to HALF_OPEN, which lets a single probe through:
+ * its success closes the circuit, its failure opens it again.
+ * <p>
+ * Callers must report the outcome of every permitted call via {@link #onSuccess()}, {@link #onFailure()}
+ * or, for calls abandoned without an outcome, {@link #onIgnored()}. Listeners are notified outside the
+ * monitor, on the thread that caused the transition.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(State from, State to);
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    /**
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDuration how long the circuit stays open before a probe is let through
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0 || openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Failure threshold and open duration must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return true if the call may proceed; false if the circuit is open or a half-open probe is already running
+     */
+    public boolean tryAcquirePermission() {
+        State from;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    if (probeInFlight) return false;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (System.nanoTime() - openedAtNanos < openNanos) return false;
+                    from = transition(State.HALF_OPEN);
+                    probeInFlight = true;
+            }
+        }
+        notifyListeners(from, State.HALF_OPEN);
+        return true;
+    }
+
+    public void onSuccess() {
+        State from;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state != State.HALF_OPEN) return;
+            probeInFlight = false;
+            from = transition(State.CLOSED);
+        }
+        notifyListeners(from, State.CLOSED);
+    }
+
+    public void onFailure() {
+        State from;
+        synchronized (this) {
+            if (state == State.OPEN) return;
+            if (state == State.CLOSED && ++consecutiveFailures < failureThreshold) return;
+            probeInFlight = false;
+            openedAtNanos = System.nanoTime();
+            from = transition(State.OPEN);
+        }
+        notifyListeners(from, State.OPEN);
+    }
+
+    /**
+     * Releases a permission whose call ended without telling anything about the upstream, e.g. a cancelled call.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) probeInFlight = false;
+    }
+
+    private State transition(State to) {
+        State from = state;
+        state = to;
+        return from;
+    }
+
+    private void notifyListeners(State from, State to) {
+        for (Listener listener : listeners) {
+            listener.onStateChange(from, to);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter: permits are replenished continuously at a fixed rate, and up to
+ * {@code burst} unused permits can accumulate.
+ * <p>
+ * Waiting happens outside the monitor, so threads blocked in {@link #acquire()} do not hold a lock.
+ */
+public final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst maximum number of permits that can be taken back to back
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a permit is available and takes it.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryTake()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes a permit if one is available right now.
+     */
+    public boolean tryAcquire() {
+        return tryTake() == 0;
+    }
+
+    /**
+     * Takes a permit and returns 0, or returns how long to wait until one becomes available.
+     */
+    private synchronized long tryTake() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / permitsPerNano));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.error;
+
+import okio.ByteString;
+
+/**
+ * Thrown when the OpenWeatherMap API answers with an error status (401 Unauthorized, 404 Not Found etc.).
+ * <p>
+ * Holds at most the first {@link #MAX_BODY_BYTES} bytes of the response body, undecoded; the message is only
+ * built when it is first asked for, so errors that are handled by status code alone (retries, fallbacks)
+ * cost no string formatting.
+ */
+public class ApiResponseException extends SDKException {
+
+    /** Maximum number of bytes of the error response kept for the message. */
+    public static final int MAX_BODY_BYTES = 1024;
+
+    private final String subject;
+    private final ByteString body;
+    private final boolean truncated;
+    private String message;
+
+    /**
+     * @param subject what was requested, e.g. a city name
+     * @param body start of the response body, at most {@link #MAX_BODY_BYTES} bytes
+     * @param truncated whether the response body was longer than {@code body}
+     */
+    public ApiResponseException(int statusCode, String subject, ByteString body, boolean truncated) {
+        super(null, statusCode);
+        this.subject = subject;
+        this.body = body;
+        this.truncated = truncated;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = String.format("Error API (HTTP %d) in request for %s. Response: %s",
+                    getStatusCode(), subject, getResponseBody());
+        }
+        return message;
+    }
+
+    /**
+     * @return the response body, cut off after {@link #MAX_BODY_BYTES} bytes and ending in "..." if it was longer
+     */
+    public String getResponseBody() {
+        return truncated ? body.utf8() + "..." : body.utf8();
+    }
+}
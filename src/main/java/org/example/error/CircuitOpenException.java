@@ -0,0 +1,11 @@
+package org.example.error;
+
+/**
+ * Thrown without contacting the OpenWeatherMap API while its circuit breaker is open.
+ */
+public class CircuitOpenException extends SDKException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -2,11 +2,32 @@ package org.example.error;
 
 public class SDKException extends RuntimeException {
 
+    /** Status code used when the failure did not come from an HTTP response. */
+    public static final int NO_STATUS = 0;
+
+    private final int statusCode;
+
     public SDKException(String message) {
-        super(message);
+        this(message, NO_STATUS);
     }
 
     public SDKException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = NO_STATUS;
+    }
+
+    /**
+     * @param statusCode HTTP status returned by the OpenWeatherMap API
+     */
+    public SDKException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return HTTP status of the failed API call, or {@link #NO_STATUS} for network, parsing and validation errors
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 }
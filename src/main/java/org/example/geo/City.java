@@ -0,0 +1,50 @@
+package org.example.geo;
+
+/**
+ * A city of the OpenWeatherMap city list.
+ */
+public final class City {
+
+    private final long id;
+    private final String name;
+    private final String country;
+    private final double lat;
+    private final double lon;
+
+    /**
+     * @param id OpenWeatherMap city ID
+     * @param country ISO 3166 country code, may be empty
+     */
+    public City(long id, String name, String country, double lat, double lon) {
+        this.id = id;
+        this.name = name;
+        this.country = country;
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    @Override
+    public String toString() {
+        return name + "," + country + " (" + id + ")";
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.geo;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Immutable in-memory index of the OpenWeatherMap city list, resolving names and coordinates to canonical
+ * city IDs without an upstream call.
+ * <p>
+ * Names are looked up by binary search over a sorted array. Coordinates are looked up in a grid of
+ * 1&deg; &times; 1&deg; cells stored as two flat int arrays (cell offsets and city indices), so the index
+ * for the full list of about 200,000 cities holds no per-cell objects.
+ */
+public final class CityIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+    private static final int LAT_CELLS = 180;
+    private static final int LON_CELLS = 360;
+
+    private final City[] cities;
+    private final String[] sortedNames; // normalized names in sorted order
+    private final int[] byName;         // index into cities for each entry of sortedNames
+    // cities of cell c are cellCities[cellStart[c]] .. cellCities[cellStart[c + 1] - 1]
+    private final int[] cellStart;
+    private final int[] cellCities;
+
+    private CityIndex(List<City> list) {
+        this.cities = list.toArray(new City[0]);
+
+        Integer[] order = new Integer[cities.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        String[] names = new String[cities.length];
+        for (int i = 0; i < cities.length; i++) names[i] = normalize(cities[i].getName());
+        // Stable sort: among cities of the same name, the one listed first wins
+        Arrays.sort(order, Comparator.comparing(i -> names[i]));
+        this.sortedNames = new String[cities.length];
+        this.byName = new int[cities.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = names[order[i]];
+            byName[i] = order[i];
+        }
+
+        this.cellStart = new int[LAT_CELLS * LON_CELLS + 1];
+        for (City city : cities) cellStart[cellOf(city.getLat(), city.getLon()) + 1]++;
+        for (int c = 0; c < LAT_CELLS * LON_CELLS; c++) cellStart[c + 1] += cellStart[c];
+        this.cellCities = new int[cities.length];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < cities.length; i++) {
+            cellCities[fill[cellOf(cities[i].getLat(), cities[i].getLon())]++] = i;
+        }
+    }
+
+    public static CityIndex of(Collection<City> cities) {
+        return new CityIndex(new ArrayList<>(cities));
+    }
+
+    /**
+     * Loads the city list published by OpenWeatherMap ({@code city.list.json}, optionally gzip-compressed
+     * as {@code city.list.json.gz}).
+     *
+     * @throws IOException if the file cannot be read or is not a city list
+     */
+    public static CityIndex load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            InputStream content = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+            return read(new InputStreamReader(content, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reads a city list as a stream of tokens, without building a JSON tree of the whole file.
+     *
+     * @throws IOException if the payload is not a city list or cannot be read
+     */
+    public static CityIndex read(Reader json) throws IOException {
+        List<City> list = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(readCity(reader));
+            }
+            reader.endArray();
+        }
+        return new CityIndex(list);
+    }
+
+    private static City readCity(JsonReader reader) throws IOException {
+        long id = 0;
+        String name = null;
+        String country = "";
+        double lat = 0;
+        double lon = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = reader.nextLong();
+                case "name" -> name = reader.nextString();
+                case "country" -> country = reader.nextString();
+                case "coord" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "lat" -> lat = reader.nextDouble();
+                            case "lon" -> lon = reader.nextDouble();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (name == null) throw new IOException("City " + id + " has no name");
+        return new City(id, name, country, lat, lon);
+    }
+
+    public int size() {
+        return cities.length;
+    }
+
+    /**
+     * Resolves a city name the way the {@code q} parameter of the API does: {@code "London"} or, to pick
+     * among cities of the same name, {@code "London,GB"} (a state in between, as in {@code "Portland,OR,US"},
+     * is ignored).
+     *
+     * @return the matching city, or null if the name is not in the index
+     */
+    public City findByName(String query) {
+        String[] parts = query.split(",");
+        String name = normalize(parts[0]);
+        String country = parts.length > 1 ? parts[parts.length - 1].trim() : null;
+
+        int i = Arrays.binarySearch(sortedNames, name);
+        if (i < 0) return null;
+        while (i > 0 && sortedNames[i - 1].equals(name)) i--;
+        for (; i < sortedNames.length && sortedNames[i].equals(name); i++) {
+            City city = cities[byName[i]];
+            if (country == null || country.equalsIgnoreCase(city.getCountry())) return city;
+        }
+        return null;
+    }
+
+    /**
+     * @param maxDistanceKm search radius
+     * @return the city closest to the given point within the radius, or null if there is none
+     */
+    public City nearest(double lat, double lon, double maxDistanceKm) {
+        double latSpan = maxDistanceKm / KM_PER_DEGREE;
+        int latFrom = latCell(lat - latSpan);
+        int latTo = latCell(lat + latSpan);
+        // Longitude degrees are shortest at the highest latitude covered by the search
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + latSpan)));
+        int lonSpan = cos * KM_PER_DEGREE * LON_CELLS / 2 <= maxDistanceKm
+                ? LON_CELLS / 2
+                : (int) Math.ceil(maxDistanceKm / (KM_PER_DEGREE * cos));
+        int lonCenter = lonCell(lon);
+
+        City best = null;
+        double bestDistance = maxDistanceKm;
+        for (int latIdx = latFrom; latIdx <= latTo; latIdx++) {
+            for (int offset = -lonSpan; offset <= lonSpan && offset < LON_CELLS - lonSpan; offset++) {
+                int cell = latIdx * LON_CELLS + Math.floorMod(lonCenter + offset, LON_CELLS);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    City city = cities[cellCities[k]];
+                    double distance = distanceKm(lat, lon, city.getLat(), city.getLon());
+                    if (distance <= bestDistance) {
+                        bestDistance = distance;
+                        best = city;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Great-circle distance (haversine).
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int cellOf(double lat, double lon) {
+        return latCell(lat) * LON_CELLS + lonCell(lon);
+    }
+
+    private static int latCell(double lat) {
+        return Math.max(0, Math.min(LAT_CELLS - 1, (int) Math.floor(lat + 90)));
+    }
+
+    private static int lonCell(double lon) {
+        return Math.floorMod((int) Math.floor(lon + 180), LON_CELLS);
+    }
+}
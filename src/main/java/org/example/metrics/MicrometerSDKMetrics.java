@@ -0,0 +1,107 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link SDKMetrics} adapter for Micrometer. Micrometer is an optional dependency: it only has to be on the
+ * classpath when this class is used.
+ * <p>
+ * Meters are registered up front, so the cache hooks only increment a counter. Error counters are created
+ * per HTTP status on first occurrence.
+ */
+public class MicrometerSDKMetrics implements SDKMetrics {
+
+    private static final String PREFIX = "openweathermap.sdk.";
+
+    private final MeterRegistry registry;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter negativeHits;
+    private final Counter evictions;
+    private final Timer upstreamLatency;
+    private final Timer pollingCycle;
+    private final AtomicInteger pollingBacklog = new AtomicInteger();
+    private final Map<Integer, Counter> upstreamErrors = new ConcurrentHashMap<>();
+
+    public MicrometerSDKMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.hits = cacheCounter("hit");
+        this.staleHits = cacheCounter("stale_hit");
+        this.misses = cacheCounter("miss");
+        this.negativeHits = Counter.builder(PREFIX + "cache.negative_hits")
+                .description("Cache misses answered from the negative cache without an upstream call")
+                .register(registry);
+        this.evictions = Counter.builder(PREFIX + "cache.evictions")
+                .description("Entries evicted to stay within the cache capacity")
+                .register(registry);
+        this.upstreamLatency = Timer.builder(PREFIX + "upstream.latency")
+                .description("Latency of OpenWeatherMap API calls")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.pollingCycle = Timer.builder(PREFIX + "polling.cycle")
+                .description("Duration of background refresh cycles")
+                .register(registry);
+        registry.gauge(PREFIX + "polling.backlog", pollingBacklog);
+    }
+
+    private Counter cacheCounter(String result) {
+        return Counter.builder(PREFIX + "cache.lookups")
+                .description("Cache lookups by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public void cacheHit() {
+        hits.increment();
+    }
+
+    @Override
+    public void cacheStaleHit() {
+        staleHits.increment();
+    }
+
+    @Override
+    public void cacheMiss() {
+        misses.increment();
+    }
+
+    @Override
+    public void cacheNegativeHit() {
+        negativeHits.increment();
+    }
+
+    @Override
+    public void cacheEviction() {
+        evictions.increment();
+    }
+
+    @Override
+    public void upstreamRequest(long latencyNanos, int statusCode) {
+        upstreamLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        if (statusCode < 200 || statusCode >= 300) {
+            upstreamErrors.computeIfAbsent(statusCode, status -> Counter.builder(PREFIX + "upstream.errors")
+                    .description("Failed OpenWeatherMap API calls by HTTP status (0 = network error)")
+                    .tag("status", String.valueOf(status))
+                    .register(registry)).increment();
+        }
+    }
+
+    @Override
+    public void pollingCycle(long durationNanos) {
+        pollingCycle.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void pollingBacklog(int backlog) {
+        pollingBacklog.set(backlog);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.metrics;
+
+/**
+ * Instrumentation hooks of the SDK. All methods default to no-ops, so an implementation only overrides
+ * what it records.
+ * <p>
+ * Hooks are called on hot paths (every cache lookup): implementations must be thread-safe, must not block
+ * and should not allocate, e.g. by resolving meters up front.
+ */
+public interface SDKMetrics {
+
+    /**
+     * Metrics implementation that records nothing.
+     */
+    SDKMetrics NOOP = new SDKMetrics() {};
+
+    /** A lookup was served from a fresh cache entry. */
+    default void cacheHit() {}
+
+    /** A lookup was served from a stale entry within the stale-while-revalidate window. */
+    default void cacheStaleHit() {}
+
+    /** A lookup found no servable entry and had to wait for the upstream API. */
+    default void cacheMiss() {}
+
+    /** A lookup that missed the cache was answered with a remembered failure (e.g. unknown city). */
+    default void cacheNegativeHit() {}
+
+    /** An entry was evicted to keep the cache within its capacity. */
+    default void cacheEviction() {}
+
+    /**
+     * An upstream HTTP call completed.
+     *
+     * @param latencyNanos time from sending the request to receiving the response status
+     * @param statusCode HTTP status, or 0 if no response was received (network error)
+     */
+    default void upstreamRequest(long latencyNanos, int statusCode) {}
+
+    /**
+     * A background refresh cycle in POLLING mode completed.
+     *
+     * @param durationNanos wall-clock duration from the start of the cycle until its last refresh finished
+     */
+    default void pollingCycle(long durationNanos) {}
+
+    /**
+     * The number of cities waiting for a background refresh changed.
+     */
+    default void pollingBacklog(int backlog) {}
+}
@@ -0,0 +1,301 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 5-day/3-hour forecast of one city, stored column by column.
+ * <p>
+ * Each forecast point is an index into parallel primitive arrays (time, temperature, wind, ...) sorted by time,
+ * instead of an object per point. Weather conditions are stored once per distinct value and referenced by
+ * index. Range queries such as {@link #maxTemperature(long, long)} binary-search the time column and scan
+ * the others in place, so answering them allocates nothing. Instances are immutable.
+ */
+public final class ForecastSeries {
+
+    private final long cityId;
+    private final String name;
+    private final int timezone;
+    private final long[] times; // epoch seconds, ascending
+    private final double[] temperatures;
+    private final double[] feelsLike;
+    private final int[] humidities;
+    private final double[] windSpeeds;
+    private final double[] precipitationProbabilities;
+    private final short[] conditions; // index into conditionMains and conditionDescriptions
+    private final String[] conditionMains;
+    private final String[] conditionDescriptions;
+
+    private ForecastSeries(Builder builder) {
+        int size = builder.size;
+        this.cityId = builder.cityId;
+        this.name = builder.name;
+        this.timezone = builder.timezone;
+        this.times = Arrays.copyOf(builder.times, size);
+        this.temperatures = Arrays.copyOf(builder.temperatures, size);
+        this.feelsLike = Arrays.copyOf(builder.feelsLike, size);
+        this.humidities = Arrays.copyOf(builder.humidities, size);
+        this.windSpeeds = Arrays.copyOf(builder.windSpeeds, size);
+        this.precipitationProbabilities = Arrays.copyOf(builder.precipitationProbabilities, size);
+        this.conditions = Arrays.copyOf(builder.conditions, size);
+        this.conditionMains = builder.conditionMains.toArray(new String[0]);
+        this.conditionDescriptions = builder.conditionDescriptions.toArray(new String[0]);
+        sortByTime();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getCityId() {
+        return cityId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return shift of the city's local time from UTC, in seconds
+     */
+    public int getTimezone() {
+        return timezone;
+    }
+
+    /**
+     * @return number of forecast points
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * @return time of the point, in epoch seconds
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    public double getTemperature(int index) {
+        return temperatures[index];
+    }
+
+    public double getFeelsLike(int index) {
+        return feelsLike[index];
+    }
+
+    /**
+     * @return relative humidity, in percent
+     */
+    public int getHumidity(int index) {
+        return humidities[index];
+    }
+
+    public double getWindSpeed(int index) {
+        return windSpeeds[index];
+    }
+
+    /**
+     * @return probability of precipitation, from 0 to 1
+     */
+    public double getPrecipitationProbability(int index) {
+        return precipitationProbabilities[index];
+    }
+
+    /**
+     * @return group of the weather condition (Rain, Snow, Clouds, ...), or null if the point has none
+     */
+    public String getConditionMain(int index) {
+        short condition = conditions[index];
+        return condition < 0 ? null : conditionMains[condition];
+    }
+
+    public String getConditionDescription(int index) {
+        short condition = conditions[index];
+        return condition < 0 ? null : conditionDescriptions[condition];
+    }
+
+    /**
+     * @return index of the first point at or after the given time; {@link #size()} if there is none
+     */
+    public int indexAtOrAfter(long epochSecond) {
+        int index = Arrays.binarySearch(times, epochSecond);
+        if (index < 0) return -index - 1;
+        while (index > 0 && times[index - 1] == epochSecond) index--;
+        return index;
+    }
+
+    /**
+     * @return time of the last point, in epoch seconds, or 0 if the series is empty
+     */
+    public long getLastTime() {
+        return times.length == 0 ? 0 : times[times.length - 1];
+    }
+
+    /**
+     * @return the lowest temperature of the points in [from, to), or NaN if there are none
+     */
+    public double minTemperature(long fromEpochSecond, long toEpochSecond) {
+        double min = Double.NaN;
+        for (int i = indexAtOrAfter(fromEpochSecond); i < times.length && times[i] < toEpochSecond; i++) {
+            if (!(temperatures[i] >= min)) min = temperatures[i];
+        }
+        return min;
+    }
+
+    /**
+     * @return the highest temperature of the points in [from, to), or NaN if there are none
+     */
+    public double maxTemperature(long fromEpochSecond, long toEpochSecond) {
+        double max = Double.NaN;
+        for (int i = indexAtOrAfter(fromEpochSecond); i < times.length && times[i] < toEpochSecond; i++) {
+            if (!(temperatures[i] <= max)) max = temperatures[i];
+        }
+        return max;
+    }
+
+    /**
+     * @return the mean temperature of the points in [from, to), or NaN if there are none
+     */
+    public double averageTemperature(long fromEpochSecond, long toEpochSecond) {
+        double sum = 0;
+        int count = 0;
+        for (int i = indexAtOrAfter(fromEpochSecond); i < times.length && times[i] < toEpochSecond; i++) {
+            sum += temperatures[i];
+            count++;
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return the highest probability of precipitation of the points in [from, to), or 0 if there are none
+     */
+    public double maxPrecipitationProbability(long fromEpochSecond, long toEpochSecond) {
+        double max = 0;
+        for (int i = indexAtOrAfter(fromEpochSecond); i < times.length && times[i] < toEpochSecond; i++) {
+            max = Math.max(max, precipitationProbabilities[i]);
+        }
+        return max;
+    }
+
+    /**
+     * The API sends points in time order; sorts them in the rare case it did not.
+     */
+    private void sortByTime() {
+        for (int i = 1; i < times.length; i++) {
+            if (times[i - 1] > times[i]) {
+                insertionSort();
+                return;
+            }
+        }
+    }
+
+    private void insertionSort() {
+        for (int i = 1; i < times.length; i++) {
+            for (int j = i; j > 0 && times[j - 1] > times[j]; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long time = times[a];
+        times[a] = times[b];
+        times[b] = time;
+        double temperature = temperatures[a];
+        temperatures[a] = temperatures[b];
+        temperatures[b] = temperature;
+        double feels = feelsLike[a];
+        feelsLike[a] = feelsLike[b];
+        feelsLike[b] = feels;
+        int humidity = humidities[a];
+        humidities[a] = humidities[b];
+        humidities[b] = humidity;
+        double wind = windSpeeds[a];
+        windSpeeds[a] = windSpeeds[b];
+        windSpeeds[b] = wind;
+        double precipitation = precipitationProbabilities[a];
+        precipitationProbabilities[a] = precipitationProbabilities[b];
+        precipitationProbabilities[b] = precipitation;
+        short condition = conditions[a];
+        conditions[a] = conditions[b];
+        conditions[b] = condition;
+    }
+
+    /**
+     * Collects forecast points one by one, e.g. while streaming a response.
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_CAPACITY = 40; // 5 days of 3-hour steps
+
+        private long cityId;
+        private String name;
+        private int timezone;
+        private int size;
+        private long[] times = new long[DEFAULT_CAPACITY];
+        private double[] temperatures = new double[DEFAULT_CAPACITY];
+        private double[] feelsLike = new double[DEFAULT_CAPACITY];
+        private int[] humidities = new int[DEFAULT_CAPACITY];
+        private double[] windSpeeds = new double[DEFAULT_CAPACITY];
+        private double[] precipitationProbabilities = new double[DEFAULT_CAPACITY];
+        private short[] conditions = new short[DEFAULT_CAPACITY];
+        private final Map<String, Short> conditionIndex = new HashMap<>();
+        private final List<String> conditionMains = new ArrayList<>();
+        private final List<String> conditionDescriptions = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder city(long cityId, String name, int timezone) {
+            this.cityId = cityId;
+            this.name = name;
+            this.timezone = timezone;
+            return this;
+        }
+
+        /**
+         * @param time epoch seconds
+         * @param conditionMain group of the weather condition, or null if the point has none
+         */
+        public Builder addPoint(long time, double temperature, double feelsLike, int humidity, double windSpeed,
+                                double precipitationProbability, String conditionMain, String conditionDescription) {
+            if (size == times.length) grow();
+            times[size] = time;
+            temperatures[size] = temperature;
+            this.feelsLike[size] = feelsLike;
+            humidities[size] = humidity;
+            windSpeeds[size] = windSpeed;
+            precipitationProbabilities[size] = precipitationProbability;
+            conditions[size] = condition(conditionMain, conditionDescription);
+            size++;
+            return this;
+        }
+
+        private short condition(String main, String description) {
+            if (main == null && description == null) return -1;
+            return conditionIndex.computeIfAbsent(main + '\n' + description, key -> {
+                conditionMains.add(main);
+                conditionDescriptions.add(description);
+                return (short) (conditionMains.size() - 1);
+            });
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(this);
+        }
+
+        private void grow() {
+            int capacity = times.length * 2;
+            times = Arrays.copyOf(times, capacity);
+            temperatures = Arrays.copyOf(temperatures, capacity);
+            feelsLike = Arrays.copyOf(feelsLike, capacity);
+            humidities = Arrays.copyOf(humidities, capacity);
+            windSpeeds = Arrays.copyOf(windSpeeds, capacity);
+            precipitationProbabilities = Arrays.copyOf(precipitationProbabilities, capacity);
+            conditions = Arrays.copyOf(conditions, capacity);
+        }
+    }
+}
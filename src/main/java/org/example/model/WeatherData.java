@@ -24,6 +24,10 @@ public class WeatherData {
 
     private SysInfo sys;
     private int timezone;
+
+    @SerializedName("id")
+    private long cityId;
+
     private String name;
 
     public static class WeatherInfo {
@@ -133,6 +137,17 @@ public class WeatherData {
         return timezone;
     }
 
+    /**
+     * @return OpenWeatherMap city ID, or 0 if unknown
+     */
+    public long getCityId() {
+        return cityId;
+    }
+
+    public void setCityId(long cityId) {
+        this.cityId = cityId;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -0,0 +1,43 @@
+package org.example.model;
+
+import org.example.error.SDKException;
+
+/**
+ * Outcome of a single city lookup within a batch: either weather data or the failure that prevented it.
+ */
+public final class WeatherResult {
+
+    private final WeatherData data;
+    private final SDKException error;
+
+    private WeatherResult(WeatherData data, SDKException error) {
+        this.data = data;
+        this.error = error;
+    }
+
+    public static WeatherResult success(WeatherData data) {
+        return new WeatherResult(data, null);
+    }
+
+    public static WeatherResult failure(SDKException error) {
+        return new WeatherResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return weather data, or null if the lookup failed
+     */
+    public WeatherData getData() {
+        return data;
+    }
+
+    /**
+     * @return the failure, or null if the lookup succeeded
+     */
+    public SDKException getError() {
+        return error;
+    }
+}
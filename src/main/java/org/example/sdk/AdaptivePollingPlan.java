@@ -0,0 +1,114 @@
+package org.example.sdk;
+
+import org.example.cache.CacheEntry;
+import org.example.cache.FrequencySketch;
+import org.example.cache.WeatherCache;
+import org.example.service.WeatherService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Chooses which cached cities the next adaptive polling tick refreshes.
+ * <p>
+ * Polling ticks {@link #TICKS_PER_INTERVAL} times per polling interval. Each tick, cities that were requested
+ * recently are ranked by estimated request count times entry age, so popular cities come first but
+ * quieter ones still move up as their data ages. They are then refreshed in that order until the
+ * tick's share of the polling quota is spent. Cities nobody requested recently are not polled at all;
+ * they are fetched on demand the next time they are requested. Spare quota is thus spent refreshing hot
+ * cities up to once per tick instead of once per interval.
+ * <p>
+ * Access counts are halved once per polling interval, so a city requested once drops out after about
+ * one interval without requests, and is then loaded on demand again.
+ */
+final class AdaptivePollingPlan {
+
+    static final int TICKS_PER_INTERVAL = 4;
+
+    private final WeatherCache cache;
+    private final FrequencySketch accessFrequency;
+    private final long intervalMs;
+    private final long tickMs;
+    private final LongSupplier clock;
+    private long lastAgingMs;
+
+    AdaptivePollingPlan(WeatherCache cache, FrequencySketch accessFrequency, Duration interval) {
+        this(cache, accessFrequency, interval, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in epoch milliseconds
+     */
+    AdaptivePollingPlan(WeatherCache cache, FrequencySketch accessFrequency, Duration interval, LongSupplier clock) {
+        this.cache = cache;
+        this.accessFrequency = accessFrequency;
+        this.intervalMs = interval.toMillis();
+        this.tickMs = intervalMs / TICKS_PER_INTERVAL;
+        this.clock = clock;
+        this.lastAgingMs = clock.getAsLong();
+    }
+
+    /**
+     * Only called from the polling scheduler thread.
+     *
+     * @param budget upstream requests available for this tick
+     * @param groupable keys that are refreshed {@link WeatherService#MAX_GROUP_SIZE} per request
+     * @return the keys to refresh, most urgent first
+     */
+    List<String> select(int budget, Predicate<String> groupable) {
+        long now = clock.getAsLong();
+        if (now - lastAgingMs >= intervalMs) {
+            accessFrequency.age();
+            lastAgingMs = now;
+        }
+
+        PriorityQueue<Candidate> queue =
+                new PriorityQueue<>(Comparator.comparingDouble(Candidate::priority).reversed());
+        for (String key : cache.keySet()) {
+            CacheEntry entry = cache.peek(key);
+            if (entry == null) continue;
+            long age = now - entry.getReceiptTime();
+            // Already refreshed this tick. A refresh completes a little after the tick that started it, so
+            // comparing with a whole tick would skip the city on the next tick as well.
+            if (age < tickMs / 2) continue;
+            int frequency = accessFrequency.frequency(key);
+            if (frequency == 0) continue; // cold: left to on-demand loading
+            queue.add(new Candidate(key, (double) frequency * age));
+        }
+
+        List<String> selected = new ArrayList<>();
+        int requests = 0;
+        int grouped = 0;
+        while (!queue.isEmpty()) {
+            String key = queue.poll().key;
+            boolean inGroup = groupable.test(key);
+            // A groupable key costs a request only when it starts a new group
+            int cost = inGroup && grouped % WeatherService.MAX_GROUP_SIZE != 0 ? 0 : 1;
+            if (requests + cost > budget) continue; // a less urgent key may still fit into an open group
+            requests += cost;
+            if (inGroup) grouped++;
+            selected.add(key);
+        }
+        return selected;
+    }
+
+    private static final class Candidate {
+
+        private final String key;
+        private final double priority;
+
+        Candidate(String key, double priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        double priority() {
+            return priority;
+        }
+    }
+}
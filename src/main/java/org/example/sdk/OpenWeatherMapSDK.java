@@ -1,7 +1,13 @@
 package org.example.sdk;
 
 import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
 import org.example.model.WeatherData;
+import org.example.model.WeatherResult;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public contract for the OpenWeatherMap SDK.
@@ -24,6 +30,77 @@ public interface OpenWeatherMapSDK {
      */
     WeatherData getCurrentWeather(String city) throws SDKException;
 
+    /**
+     * Non-blocking variant of {@link #getCurrentWeather(String)}.
+     * <p>
+     * Fresh cached data completes the future immediately; otherwise the upstream request runs without
+     * occupying the calling thread, and its result is cached like a blocking lookup.
+     *
+     * @param city city name (case-insensitive)
+     * @return future completed with weather data for the city, or failed with {@link SDKException}
+     */
+    CompletableFuture<WeatherData> getCurrentWeatherAsync(String city);
+
+    /**
+     * Returns current weather for a city identified by its OpenWeatherMap city ID.
+     * <p>
+     * IDs are unambiguous, so different spellings of a city can share one cache entry by resolving to its ID.
+     *
+     * @param cityId OpenWeatherMap city ID (see the city list published by OpenWeatherMap)
+     * @return weather data for the city
+     * @throws SDKException if the ID is invalid, or the request fails or the data cannot be retrieved
+     */
+    WeatherData getCurrentWeatherById(long cityId) throws SDKException;
+
+    /**
+     * Returns current weather at the given geographic point.
+     * <p>
+     * Nearby points share a cache entry: with a {@link org.example.geo.CityIndex} configured, the point
+     * resolves to the nearest known city, otherwise it is rounded to about one kilometer.
+     *
+     * @param lat latitude in degrees, -90 to 90
+     * @param lon longitude in degrees, -180 to 180
+     * @return weather data for the point
+     * @throws SDKException if the coordinates are invalid, or the request fails or the data cannot be retrieved
+     */
+    WeatherData getCurrentWeatherByCoordinates(double lat, double lon) throws SDKException;
+
+    /**
+     * Returns current weather for several cities at once.
+     * <p>
+     * Fresh cached cities are served in a single pass; the remaining cities are fetched in parallel,
+     * with the number of concurrent upstream requests bounded by the SDK configuration. A failure for
+     * one city does not fail the batch: it is reported in that city's {@link WeatherResult}.
+     *
+     * @param cities city names (case-insensitive); duplicates are looked up once
+     * @return results keyed by the city names as passed, in iteration order of the input
+     * @throws SDKException if the batch itself cannot be processed (e.g. the calling thread is interrupted)
+     */
+    Map<String, WeatherResult> getCurrentWeather(Collection<String> cities) throws SDKException;
+
+    /**
+     * Returns the 5-day/3-hour forecast for the given city.
+     * <p>
+     * Forecasts are cached separately from current weather, for the 3-hour window in which OpenWeatherMap
+     * issued them (see {@link SDKConfig#getForecastTtl()}). Range queries on the returned series, such as
+     * the temperature over the next 24 hours, are answered from memory.
+     *
+     * @param city city name (case-insensitive)
+     * @return forecast for the city
+     * @throws SDKException if the request fails or the data cannot be retrieved
+     */
+    ForecastSeries getForecast(String city) throws SDKException;
+
+    /**
+     * Forecast counterpart of {@link #getCurrentWeatherById(long)}.
+     */
+    ForecastSeries getForecastById(long cityId) throws SDKException;
+
+    /**
+     * Forecast counterpart of {@link #getCurrentWeatherByCoordinates(double, double)}.
+     */
+    ForecastSeries getForecastByCoordinates(double lat, double lon) throws SDKException;
+
     /**
      * Disposes this SDK instance and releases internal resources (e.g., stops background polling).
      * <p>
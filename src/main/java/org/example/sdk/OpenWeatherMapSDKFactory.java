@@ -2,7 +2,10 @@ package org.example.sdk;
 
 import org.example.constant.Mode;
 import org.example.error.SDKException;
+import org.example.service.KeyPoolWeatherService;
+import org.example.service.WeatherService;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -12,11 +15,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * Guarantees that only one SDK instance exists per API key at a time.
  * Also provides a way to release instances and stop their background resources.
  * <p>
- * Note: the Mode parameter is applied only when creating a new instance. If an instance for the
- * same API key already exists, getInstance(...) will return the existing instance regardless of
- * the Mode argument. To change the Mode for a key, release/delete the existing instance first
+ * Note: the Mode (or {@link SDKConfig}) parameter is applied only when creating a new instance. If an
+ * instance for the same API key already exists, getInstance(...) will return the existing instance
+ * regardless of the Mode argument. To change the Mode for a key, release/delete the existing instance first
  * (OpenWeatherMapSDKFactory.releaseInstance(apiKey) or sdk.delete()), then call getInstance(...)
  * with the desired Mode.
+ * <p>
+ * Several keys can also be combined into one instance with a shared cache, see
+ * {@link #getPooledInstance(String, Collection, SDKConfig)}.
+ * <p>
+ * Every instance created here owns its scheduler and polling workers and stays registered until released. To
+ * serve many tenants with their own keys on shared, bounded resources, use a {@link TenantRegistry} instead.
  */
 public final class OpenWeatherMapSDKFactory {
 
@@ -38,31 +47,86 @@ public final class OpenWeatherMapSDKFactory {
      * @throws SDKException if the API key is invalid or initialization fails
      */
     public static OpenWeatherMapSDK getInstance(String apiKey, Mode mode) throws SDKException {
+        return getInstance(apiKey, SDKConfig.of(mode));
+    }
+
+    /**
+     * Returns the SDK instance for the given API key, creating it with the given configuration
+     * (cache capacity and TTL, polling interval, HTTP timeouts, ...) if it does not exist yet.
+     * <p>
+     * As with {@link #getInstance(String, Mode)}, the configuration of an already existing instance is not changed.
+     *
+     * @param apiKey non-empty OpenWeatherMap API key
+     * @param config SDK configuration built with {@link SDKConfig#builder()}
+     * @return existing or newly created SDK instance bound to the given key
+     * @throws SDKException if the API key is invalid or initialization fails
+     */
+    public static OpenWeatherMapSDK getInstance(String apiKey, SDKConfig config) throws SDKException {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new SDKException("API Key cannot be null or empty.");
         }
+        if (config == null) {
+            throw new SDKException("SDK configuration cannot be null.");
+        }
 
         // ConcurrentHashMap.computeIfAbsent guarantees atomicity
         return instances.computeIfAbsent(apiKey, k -> {
             try {
-                return new OpenWeatherMapSDKImpl(k, mode);
+                return new OpenWeatherMapSDKImpl(k, config);
+            } catch (Exception e) {
+                throw new SDKException("Failed to initialize SDK for key " + WeatherService.maskApiKey(apiKey), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the pooled SDK instance registered under the given name, creating it if it does not exist yet.
+     * <p>
+     * A pooled instance has one cache and spreads its upstream requests over all given API keys, so its
+     * aggregate request rate is the sum of the keys' quotas ({@link SDKConfig#getKeyRequestsPerMinute()} each).
+     * A key answered with HTTP 429 is backed off and the request is retried with another key.
+     * <p>
+     * Pool names share the namespace of API keys: release a pool with {@link #releaseInstance(String)}. As with
+     * {@link #getInstance(String, SDKConfig)}, the keys and configuration of an already existing pool are not changed.
+     *
+     * @param poolName non-empty name identifying the pool
+     * @param apiKeys OpenWeatherMap API keys of the pool
+     * @param config SDK configuration built with {@link SDKConfig#builder()}
+     * @return existing or newly created SDK instance for the pool
+     * @throws SDKException if the name or a key is invalid or initialization fails
+     */
+    public static OpenWeatherMapSDK getPooledInstance(String poolName, Collection<String> apiKeys, SDKConfig config)
+            throws SDKException {
+        if (poolName == null || poolName.trim().isEmpty()) {
+            throw new SDKException("Pool name cannot be null or empty.");
+        }
+        if (config == null) {
+            throw new SDKException("SDK configuration cannot be null.");
+        }
+        return instances.computeIfAbsent(poolName, k -> {
+            // Validates the keys, so outside the try to keep its message
+            KeyPoolWeatherService service = new KeyPoolWeatherService(apiKeys, config.getTransport().client(),
+                    config.getBaseUrl(), config.getMetrics(), config.getKeyRequestsPerMinute());
+            try {
+                return new OpenWeatherMapSDKImpl(k, config, service, OpenWeatherMapSDKImpl.createCache(config));
             } catch (Exception e) {
-                throw new SDKException("Failed to initialize SDK for key " + apiKey, e);
+                throw new SDKException("Failed to initialize SDK for pool " + poolName, e);
             }
         });
     }
 
     /**
      * Releases and unregisters the SDK instance for the given API key, if any.
-     * Background polling is shut down gracefully.
+     * The instance is deleted: background polling is shut down gracefully and the cache snapshot,
+     * if configured, is saved.
      *
      * @param apiKey API key to remove
      */
     public static void releaseInstance(String apiKey) {
         if (apiKey == null) return;
         OpenWeatherMapSDK sdk = instances.remove(apiKey);
-        if (sdk instanceof OpenWeatherMapSDKImpl impl) {
-            impl.shutdownPolling();
+        if (sdk != null) {
+            sdk.delete();
         }
     }
 }
\ No newline at end of file
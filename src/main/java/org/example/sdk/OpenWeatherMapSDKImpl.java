@@ -1,58 +1,226 @@
 package org.example.sdk;
 
 import org.example.cache.CacheEntry;
+import org.example.cache.CacheSnapshot;
+import org.example.cache.ForecastCache;
+import org.example.cache.FrequencySketch;
+import org.example.cache.NegativeCache;
 import org.example.cache.WeatherCache;
+import org.example.concurrent.CircuitBreaker;
 import org.example.constant.Mode;
+import org.example.error.CircuitOpenException;
 import org.example.error.SDKException;
+import org.example.geo.City;
+import org.example.geo.CityIndex;
+import org.example.model.ForecastSeries;
 import org.example.model.WeatherData;
+import org.example.model.WeatherResult;
+import org.example.service.CircuitBreakingWeatherService;
+import org.example.service.GroupFetchingWeatherService;
+import org.example.service.VirtualThreadWeatherService;
 import org.example.service.WeatherService;
+import org.example.service.WeatherSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Default implementation of {@link OpenWeatherMapSDK}.
  * - On-demand and polling modes for data retrieval.
- * - LRU in-memory cache for up to 10 cities with 10-minute freshness TTL.
+ * - Concurrent in-memory cache, by default for up to 10 cities with 10-minute freshness TTL (see {@link SDKConfig}).
  * - Error handling via {@link SDKException}.
  */
 public class OpenWeatherMapSDKImpl implements OpenWeatherMapSDK {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenWeatherMapSDKImpl.class);
-    private static final int POLLING_INTERVAL_MINUTES = 10;
+    private static final String ID_PREFIX = "#";
+    private static final String COORDINATES_PREFIX = "@";
+    private static final double NEAREST_CITY_MAX_DISTANCE_KM = 10;
     private final String apiKey;
     private final Mode mode;
+    private final SDKConfig config;
     private final WeatherCache cache;
-    private final WeatherService weatherService;
+    private final NegativeCache negativeCache; // null if disabled
+    private final CityIndex cityIndex; // null if not configured
+    private final FrequencySketch accessFrequency; // null unless polling adaptively
+    private final AdaptivePollingPlan adaptivePlan; // null unless polling adaptively
+    private final CircuitBreaker circuitBreaker; // null if disabled
+    private final WeatherSource weatherService;
+    private final VirtualThreadWeatherService fetchThreads; // null unless fetching on virtual threads
     private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollingWorkers;
+    private final ExecutorService pollingCycles;
+    private final boolean sharedExecutors; // scheduler, workers and cycles belong to a TenantRegistry
+    private final PollingRefresher pollingRefresher;
+    private final ScheduledFuture<?> snapshotTask; // null if snapshots are disabled
+    private final Object snapshotLock = new Object(); // serializes snapshot writers
+    private final SingleFlight<WeatherData> inFlight = new SingleFlight<>();
+    private final ForecastCache forecastCache;
+    private final SingleFlight<ForecastSeries> forecastsInFlight = new SingleFlight<>();
+    private final AtomicBoolean deleted = new AtomicBoolean();
 
     /**
      * Advanced constructor primarily for testing or custom dependency injection.
      * Prefer creating instances via {@link OpenWeatherMapSDKFactory} to ensure one-per-key semantics.
      */
-    OpenWeatherMapSDKImpl(String apiKey, Mode mode, WeatherService service, WeatherCache cache) {
+    OpenWeatherMapSDKImpl(String apiKey, Mode mode, WeatherSource service, WeatherCache cache) {
+        this(apiKey, SDKConfig.of(mode), service, cache);
+    }
+
+    OpenWeatherMapSDKImpl(String apiKey, SDKConfig config, WeatherSource service, WeatherCache cache) {
+        this(apiKey, config, service, cache, null, null, null);
+    }
+
+    /**
+     * @param sharedScheduler scheduler owned by the caller and shared with other instances, or null to create one
+     * @param sharedWorkers polling workers owned by the caller (POLLING mode), or null to create them
+     * @param sharedCycles executor of polling cycles owned by the caller (POLLING mode), or null to create it
+     */
+    OpenWeatherMapSDKImpl(String apiKey, SDKConfig config, WeatherSource service, WeatherCache cache,
+                          ScheduledExecutorService sharedScheduler, ExecutorService sharedWorkers,
+                          ExecutorService sharedCycles) {
         this.apiKey = apiKey;
-        this.mode = mode;
+        this.mode = config.getMode();
+        this.config = config;
         this.cache = cache;
-        this.weatherService = service;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.negativeCache = config.getNegativeCacheTtl().isZero()
+                ? null
+                : new NegativeCache(config.getNegativeCacheMaxEntries(), config.getNegativeCacheTtl());
+        this.circuitBreaker = createCircuitBreaker(config);
+        this.fetchThreads = config.isVirtualThreads()
+                ? new VirtualThreadWeatherService(service, config.getMaxConcurrentRequests())
+                : null;
+        this.weatherService = decorate(fetchThreads != null ? fetchThreads : service, config, circuitBreaker);
+        this.cityIndex = config.getCityIndex();
+        this.forecastCache = new ForecastCache(config.getForecastMaxEntries(), config.getForecastTtl());
+        this.sharedExecutors = sharedScheduler != null;
+        this.scheduler = sharedExecutors ? sharedScheduler : createScheduler(config);
+        if (mode != Mode.POLLING) {
+            this.pollingWorkers = null;
+            this.pollingCycles = null;
+        } else if (sharedExecutors) {
+            if (sharedWorkers == null || sharedCycles == null) {
+                throw new SDKException("Polling workers and cycles must be shared along with the scheduler.");
+            }
+            this.pollingWorkers = sharedWorkers;
+            this.pollingCycles = sharedCycles;
+        } else {
+            this.pollingWorkers = createPollingWorkers(config);
+            this.pollingCycles = createPollingCycles(config);
+        }
+        boolean adaptive = mode == Mode.POLLING && config.isAdaptivePolling();
+        this.accessFrequency = adaptive ? new FrequencySketch(config.getMaxEntries()) : null;
+        this.adaptivePlan = adaptive
+                ? new AdaptivePollingPlan(cache, accessFrequency, config.getPollingInterval())
+                : null;
+        this.pollingRefresher = mode == Mode.POLLING
+                ? new PollingRefresher(scheduler, pollingWorkers, pollingCycles, config, this::pollingGroups,
+                        this::refreshAll)
+                : null;
 
-        if (mode == Mode.POLLING) startPolling();
+        int restored = restoreSnapshot();
+        // Cities restored from a snapshot may already be due: refresh them right away instead of after an interval
+        if (mode == Mode.POLLING) pollingRefresher.start(restored > 0);
+        if (config.getSnapshotPath() != null) {
+            long intervalMs = config.getSnapshotInterval().toMillis();
+            this.snapshotTask =
+                    scheduler.scheduleWithFixedDelay(this::saveSnapshot, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotTask = null;
+        }
     }
 
     OpenWeatherMapSDKImpl(String apiKey, Mode mode) {
-        this.apiKey = apiKey;
-        this.mode = mode;
-        this.cache = new WeatherCache();
-        this.weatherService = new WeatherService(apiKey);
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this(apiKey, SDKConfig.of(mode));
+    }
+
+    OpenWeatherMapSDKImpl(String apiKey, SDKConfig config) {
+        this(apiKey, config,
+                new WeatherService(apiKey, config.getTransport().client(), config.getBaseUrl(), config.getMetrics()),
+                createCache(config));
+    }
 
-        if (mode == Mode.POLLING) startPolling();
+    private CircuitBreaker createCircuitBreaker(SDKConfig config) {
+        if (config.getCircuitBreakerFailureThreshold() == 0) return null;
+        CircuitBreaker breaker = new CircuitBreaker(
+                config.getCircuitBreakerFailureThreshold(), config.getCircuitBreakerOpenDuration());
+        breaker.addListener((from, to) -> logger.warn("Circuit breaker for {} changed from {} to {}",
+                WeatherService.maskApiKey(apiKey), from, to));
+        if (config.getCircuitBreakerListener() != null) breaker.addListener(config.getCircuitBreakerListener());
+        return breaker;
+    }
+
+    /**
+     * Wraps the service in the circuit breaker and, if enabled, in group fetching. Grouping sits outside
+     * the breaker, so that a failed group request counts as one upstream failure. With virtual threads,
+     * the service passed in already bounds concurrency innermost, so that the limit counts actual requests only.
+     */
+    private static WeatherSource decorate(WeatherSource service, SDKConfig config, CircuitBreaker breaker) {
+        WeatherSource decorated = service;
+        if (breaker != null) decorated = new CircuitBreakingWeatherService(decorated, breaker);
+        if (config.getGroupFetchWindow().isZero()) return decorated;
+        return new GroupFetchingWeatherService(decorated, config.getGroupFetchWindow());
+    }
+
+    static ScheduledExecutorService createScheduler(SDKConfig config) {
+        if (!config.isVirtualThreads()) return Executors.newSingleThreadScheduledExecutor();
+        ThreadFactory virtualThreads = Thread.ofVirtual().name("openweathermap-sdk-scheduler").factory();
+        return Executors.newSingleThreadScheduledExecutor(virtualThreads);
+    }
+
+    /**
+     * The refresher bounds polling concurrency either way; virtual workers just cost no platform threads.
+     */
+    static ExecutorService createPollingWorkers(SDKConfig config) {
+        if (!config.isVirtualThreads()) return Executors.newFixedThreadPool(config.getPollingConcurrency());
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("openweathermap-sdk-polling-", 0).factory());
+    }
+
+    /**
+     * Polling cycles are paced off the scheduler thread, so that pacing does not delay retries and snapshots.
+     * Cycles of one instance never overlap, so a cached pool keeps at most one platform thread per instance.
+     */
+    static ExecutorService createPollingCycles(SDKConfig config) {
+        if (!config.isVirtualThreads()) return Executors.newCachedThreadPool();
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("openweathermap-sdk-cycle-", 0).factory());
+    }
+
+    static WeatherCache createCache(SDKConfig config) {
+        return createCache(config, config.getMaxEntries());
+    }
+
+    /**
+     * @param maxEntries capacity of the cache, overriding {@link SDKConfig#getMaxEntries()}
+     */
+    static WeatherCache createCache(SDKConfig config, int maxEntries) {
+        return WeatherCache.builder()
+                .maxSize(maxEntries)
+                .maxAge(config.getTtl())
+                .refreshAheadFactor(config.getRefreshAheadFactor())
+                .staleWhileRevalidate(config.getStaleWhileRevalidate())
+                .metrics(config.getMetrics())
+                .compactStorage(config.isCompactStorage())
+                .remoteTier(config.getRemoteCacheTier())
+                .build();
     }
 
     /**
@@ -63,12 +231,43 @@ public class OpenWeatherMapSDKImpl implements OpenWeatherMapSDK {
         return scheduler;
     }
 
+    /**
+     * Returns how many calls were served by joining an upstream fetch already in flight for the same city
+     * instead of issuing their own request.
+     */
+    public long getDeduplicatedRequestCount() {
+        return inFlight.getDeduplicatedCount();
+    }
+
+    /**
+     * State of the upstream circuit breaker, or null if it is disabled.
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker == null ? null : circuitBreaker.getState();
+    }
+
+    /**
+     * Number of cities queued for background refresh but not refreshed yet (0 outside POLLING mode).
+     */
+    public int getPollingBacklog() {
+        return pollingRefresher == null ? 0 : pollingRefresher.getBacklog();
+    }
+
+    /**
+     * Duration of the last completed background refresh cycle, or null if none has completed yet.
+     */
+    public Duration getLastPollingCycleDuration() {
+        return pollingRefresher == null ? null : pollingRefresher.getLastCycleDuration();
+    }
+
     /**
      * Disposes this SDK instance and releases resources (stops polling if running).
+     * If a snapshot path is configured, the cache is saved to it one last time.
      */
     @Override
     public void delete() throws SDKException {
         shutdownPolling();
+        if (deleted.compareAndSet(false, true)) saveSnapshot();
     }
 
     /**
@@ -77,64 +276,496 @@ public class OpenWeatherMapSDKImpl implements OpenWeatherMapSDK {
      */
     @Override
     public WeatherData getCurrentWeather(String city) throws SDKException {
-        CacheEntry freshEntry = cache.getFresh(city);
-        if (freshEntry != null) return freshEntry.getData();
+        validateCity(city);
+        return lookup(keyForName(city));
+    }
+
+    @Override
+    public WeatherData getCurrentWeatherById(long cityId) throws SDKException {
+        if (cityId <= 0) throw new SDKException("City ID must be positive: " + cityId);
+        return lookup(idKey(cityId));
+    }
+
+    @Override
+    public WeatherData getCurrentWeatherByCoordinates(double lat, double lon) throws SDKException {
+        validateCoordinates(lat, lon);
+        return lookup(keyForCoordinates(lat, lon));
+    }
+
+    /**
+     * Forecasts are loaded on demand in both modes; polling keeps current weather only.
+     */
+    @Override
+    public ForecastSeries getForecast(String city) throws SDKException {
+        validateCity(city);
+        return lookupForecast(keyForName(city));
+    }
+
+    @Override
+    public ForecastSeries getForecastById(long cityId) throws SDKException {
+        if (cityId <= 0) throw new SDKException("City ID must be positive: " + cityId);
+        return lookupForecast(idKey(cityId));
+    }
+
+    @Override
+    public ForecastSeries getForecastByCoordinates(double lat, double lon) throws SDKException {
+        validateCoordinates(lat, lon);
+        return lookupForecast(keyForCoordinates(lat, lon));
+    }
+
+    /**
+     * Non-blocking lookup: cache hits complete immediately, misses are fetched via OkHttp's dispatcher
+     * and share in-flight requests with blocking callers.
+     */
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(String city) {
+        try {
+            validateCity(city);
+        } catch (SDKException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return lookupAsync(keyForName(city));
+    }
+
+    /**
+     * Batch lookup: hits are collected first, then misses are fetched asynchronously with at most
+     * {@link SDKConfig#getBatchConcurrency()} requests outstanding, so the batch takes about as long as its
+     * slowest fetch.
+     */
+    @Override
+    public Map<String, WeatherResult> getCurrentWeather(Collection<String> cities) throws SDKException {
+        Map<String, WeatherResult> results = new LinkedHashMap<>();
+        Map<String, String> misses = new LinkedHashMap<>(); // city -> cache key
+        for (String city : cities) {
+            if (results.containsKey(city)) continue;
+            try {
+                validateCity(city);
+                String key = keyForName(city);
+                WeatherData cached = serveCached(key);
+                if (cached != null) {
+                    results.put(city, WeatherResult.success(cached));
+                    continue;
+                }
+                misses.put(city, key);
+            } catch (SDKException e) {
+                results.put(city, WeatherResult.failure(e));
+                continue;
+            }
+            results.put(city, null); // placeholder keeps the input order
+        }
+
+        Semaphore permits = new Semaphore(config.getBatchConcurrency());
+        Map<String, CompletableFuture<WeatherData>> pending = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, String> miss : misses.entrySet()) {
+                permits.acquire();
+                // Already looked up in the cache above: load directly, so the miss is counted once
+                CompletableFuture<WeatherData> future = loadAsync(miss.getValue());
+                future.whenComplete((data, error) -> permits.release());
+                pending.put(miss.getKey(), future);
+            }
+        } catch (InterruptedException e) {
+            pending.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SDKException("Interrupted while fetching weather for " + misses.size() + " cities", e);
+        }
+
+        pending.forEach((city, future) -> {
+            try {
+                results.put(city, WeatherResult.success(await(future)));
+            } catch (SDKException e) {
+                results.put(city, WeatherResult.failure(e));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Cache key of a city name: its city ID if the configured {@link CityIndex} knows the name, so that
+     * spellings resolving to the same city share an entry; otherwise the name itself.
+     */
+    private String keyForName(String city) {
+        City match = cityIndex == null ? null : cityIndex.findByName(city);
+        return match == null ? city : idKey(match.getId());
+    }
+
+    /**
+     * Cache key of a point: the nearest indexed city, or the coordinates rounded to two decimals
+     * (about one kilometer), so that nearby queries share an entry.
+     */
+    private String keyForCoordinates(double lat, double lon) {
+        City nearest = cityIndex == null ? null : cityIndex.nearest(lat, lon, NEAREST_CITY_MAX_DISTANCE_KM);
+        if (nearest != null) return idKey(nearest.getId());
+        return String.format(Locale.ROOT, COORDINATES_PREFIX + "%.2f,%.2f", lat, lon);
+    }
+
+    private static String idKey(long cityId) {
+        return ID_PREFIX + cityId;
+    }
+
+    /**
+     * Serves a cache key from the cache or, on a miss, from the API.
+     */
+    private WeatherData lookup(String key) throws SDKException {
+        WeatherData cached = serveCached(key);
+        if (cached != null) return cached;
+        SDKException knownFailure = knownFailure(key);
+        if (knownFailure != null) throw knownFailure;
 
         // If the cache misses or stales, decide based on instance mode
-        if (this.mode == Mode.ON_DEMAND || this.mode == Mode.POLLING) return updateAndReturnWeather(city);
+        if (this.mode == Mode.ON_DEMAND || this.mode == Mode.POLLING) return loadOnMiss(key);
 
         throw new SDKException("Unknown SDK mode: " + this.mode);
     }
 
+    /**
+     * Serves a forecast from the forecast cache or, on a miss, from the API, sharing one upstream fetch
+     * among concurrent callers for the same key.
+     */
+    private ForecastSeries lookupForecast(String key) throws SDKException {
+        ForecastSeries cached = forecastCache.get(key);
+        if (cached != null) return cached;
+        return await(forecastsInFlight.execute(WeatherCache.norm(key), () -> {
+            ForecastSeries loaded = forecastCache.get(key);
+            if (loaded != null) return CompletableFuture.completedFuture(loaded);
+            try {
+                ForecastSeries series = fetchForecast(key);
+                forecastCache.put(key, series);
+                return CompletableFuture.completedFuture(series);
+            } catch (SDKException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    private ForecastSeries fetchForecast(String key) throws SDKException {
+        if (key.startsWith(ID_PREFIX)) return weatherService.fetchForecastById(Long.parseLong(key.substring(1)));
+        if (key.startsWith(COORDINATES_PREFIX)) {
+            int comma = key.indexOf(',');
+            return weatherService.fetchForecastByCoordinates(
+                    Double.parseDouble(key.substring(1, comma)), Double.parseDouble(key.substring(comma + 1)));
+        }
+        return weatherService.fetchForecast(key);
+    }
+
+    private CompletableFuture<WeatherData> lookupAsync(String key) {
+        WeatherData cached = serveCached(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return loadAsync(key);
+    }
+
+    /**
+     * Loads a cache key that missed the cache, sharing one upstream fetch among concurrent callers.
+     */
+    private CompletableFuture<WeatherData> loadAsync(String key) {
+        SDKException knownFailure = knownFailure(key);
+        if (knownFailure != null) return CompletableFuture.failedFuture(knownFailure);
+
+        // copy(): a caller cancelling its future must not cancel the flight shared with other callers
+        return inFlight.execute(WeatherCache.norm(key), () -> {
+            CacheEntry entry = cache.getFresh(key);
+            if (entry != null) return CompletableFuture.completedFuture(entry.getData());
+            return fetchAsyncAndCache(key);
+        }).copy().exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof CircuitOpenException circuitOpen) return serveStale(key, circuitOpen);
+            throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Returns cached data that can be served right away, or null if the caller has to wait for a reload.
+     * Entries past the refresh-ahead threshold, or stale within the stale-while-revalidate window, are
+     * served and reloaded in the background so that no caller pays the upstream latency.
+     */
+    private WeatherData serveCached(String key) {
+        if (accessFrequency != null) accessFrequency.increment(WeatherCache.norm(key));
+        CacheEntry entry = cache.lookup(key);
+        return switch (cache.freshness(entry)) {
+            case FRESH -> entry.getData();
+            case REFRESH_DUE, STALE -> {
+                refreshInBackground(key);
+                yield entry.getData();
+            }
+            case EXPIRED -> null;
+        };
+    }
+
+    private void refreshInBackground(String key) {
+        CompletableFuture<WeatherData> reload =
+                inFlight.executeIfIdle(WeatherCache.norm(key), () -> fetchAsyncAndCache(key));
+        if (reload == null) return; // already reloading
+        reload.whenComplete((data, error) -> {
+            if (error != null) logger.warn("Background refresh failed for {} city : {}", key, error.getMessage());
+        });
+    }
+
+    /**
+     * Returns the remembered failure of an earlier lookup for the key, or null if it has to be fetched.
+     */
+    private SDKException knownFailure(String key) {
+        if (negativeCache == null) return null;
+        SDKException failure = negativeCache.get(key);
+        if (failure != null) config.getMetrics().cacheNegativeHit();
+        return failure;
+    }
+
+    /**
+     * Requests a cache key from the API by the kind of key: city ID, coordinates or city name.
+     */
+    private WeatherData fetch(String key) throws SDKException {
+        if (key.startsWith(ID_PREFIX)) return weatherService.fetchWeatherById(Long.parseLong(key.substring(1)));
+        if (key.startsWith(COORDINATES_PREFIX)) {
+            int comma = key.indexOf(',');
+            return weatherService.fetchWeatherByCoordinates(
+                    Double.parseDouble(key.substring(1, comma)), Double.parseDouble(key.substring(comma + 1)));
+        }
+        return weatherService.fetchWeather(key);
+    }
+
+    private CompletableFuture<WeatherData> fetchAsync(String key) {
+        if (key.startsWith(ID_PREFIX)) return weatherService.fetchWeatherByIdAsync(Long.parseLong(key.substring(1)));
+        if (key.startsWith(COORDINATES_PREFIX)) {
+            int comma = key.indexOf(',');
+            return weatherService.fetchWeatherByCoordinatesAsync(
+                    Double.parseDouble(key.substring(1, comma)), Double.parseDouble(key.substring(comma + 1)));
+        }
+        return weatherService.fetchWeatherAsync(key);
+    }
+
+    private CompletableFuture<WeatherData> fetchAsyncAndCache(String key) {
+        return fetchAsync(key)
+                .whenComplete((data, error) -> {
+                    if (error != null) rememberFailure(key, error);
+                })
+                .thenApply(data -> {
+                    cacheResult(key, data);
+                    return data;
+                });
+    }
+
+    private void cacheResult(String key, WeatherData data) {
+        cache.put(key, data);
+        if (negativeCache != null) negativeCache.invalidate(key);
+    }
+
+    private void rememberFailure(String key, Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (negativeCache != null && cause instanceof SDKException sdkException) negativeCache.put(key, sdkException);
+    }
+
+    /**
+     * Loads a missing or stale key, sharing a single upstream fetch among all concurrent callers for it.
+     */
+    private WeatherData loadOnMiss(String key) throws SDKException {
+        try {
+            return await(inFlight.execute(WeatherCache.norm(key), () -> {
+                // A previous flight may have filled the cache between our miss and becoming the leader
+                CacheEntry freshEntry = cache.getFresh(key);
+                if (freshEntry != null) return CompletableFuture.completedFuture(freshEntry.getData());
+                return updateAndReturnWeatherFuture(key);
+            }));
+        } catch (CircuitOpenException e) {
+            return serveStale(key, e);
+        }
+    }
+
+    /**
+     * While the upstream circuit is open, expired data still in the cache beats an error.
+     */
+    private WeatherData serveStale(String key, CircuitOpenException e) throws CircuitOpenException {
+        CacheEntry entry = cache.getEntry(key);
+        if (entry == null) throw e;
+        logger.debug("Circuit open, serving cached weather for {} city from {}", key, entry.getReceiptTime());
+        return entry.getData();
+    }
+
+    /**
+     * Refreshes a cached key unconditionally, joining a fetch already in flight for it if there is one.
+     */
+    private WeatherData refresh(String key) throws SDKException {
+        return await(inFlight.execute(WeatherCache.norm(key), () -> updateAndReturnWeatherFuture(key)));
+    }
+
+    /**
+     * Refreshes a polling group. Its keys are requested together, so that with group fetching enabled
+     * they end up in the same upstream request. Keys that another instance sharing the remote cache tier
+     * refreshed within the last half polling interval are taken from there instead.
+     *
+     * @return the failure of every key that could not be refreshed
+     */
+    private Map<String, SDKException> refreshAll(List<String> group) {
+        List<String> keys = group;
+        if (config.getRemoteCacheTier() != null) {
+            long since = System.currentTimeMillis() - config.getPollingInterval().toMillis() / 2;
+            keys = group.stream().filter(key -> cache.getRemoteEntry(key, since) == null).toList();
+        }
+        if (keys.isEmpty()) return Map.of();
+        if (keys.size() == 1) {
+            try {
+                refresh(keys.getFirst());
+                return Map.of();
+            } catch (SDKException e) {
+                return Map.of(keys.getFirst(), e);
+            }
+        }
+        Map<String, CompletableFuture<WeatherData>> reloads = new LinkedHashMap<>();
+        for (String key : keys) {
+            reloads.put(key, inFlight.execute(WeatherCache.norm(key), () -> fetchAsyncAndCache(key)));
+        }
+        Map<String, SDKException> failures = new HashMap<>();
+        reloads.forEach((key, reload) -> {
+            try {
+                await(reload);
+            } catch (SDKException e) {
+                failures.put(key, e);
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Keys to refresh in the next polling cycle: all cached keys, or with adaptive polling those chosen by
+     * the {@link AdaptivePollingPlan} within the budget. With group fetching enabled, city IDs are refreshed
+     * {@link WeatherService#MAX_GROUP_SIZE} at a time; every other key on its own.
+     */
+    private Collection<List<String>> pollingGroups(int budget) {
+        boolean grouping = !config.getGroupFetchWindow().isZero();
+        Collection<String> keys = adaptivePlan == null
+                ? cache.keySet()
+                : adaptivePlan.select(budget, key -> grouping && key.startsWith(ID_PREFIX));
+        List<List<String>> groups = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (String key : keys) {
+            if (grouping && key.startsWith(ID_PREFIX)) {
+                ids.add(key);
+                if (ids.size() == WeatherService.MAX_GROUP_SIZE) {
+                    groups.add(ids);
+                    ids = new ArrayList<>();
+                }
+            } else {
+                groups.add(List.of(key));
+            }
+        }
+        if (!ids.isEmpty()) groups.add(ids);
+        return groups;
+    }
+
+    private CompletableFuture<WeatherData> updateAndReturnWeatherFuture(String key) {
+        try {
+            return CompletableFuture.completedFuture(updateAndReturnWeather(key));
+        } catch (SDKException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Internal method: fetches data from the service and caches it.
      */
-    private WeatherData updateAndReturnWeather(String city) throws SDKException {
-        WeatherData data = weatherService.fetchWeather(city);
-        cache.put(city, data);
+    private WeatherData updateAndReturnWeather(String key) throws SDKException {
+        WeatherData data;
+        try {
+            data = fetch(key);
+        } catch (SDKException e) {
+            rememberFailure(key, e);
+            throw e;
+        }
+        cacheResult(key, data);
         return data;
     }
 
+    private static void validateCity(String city) throws SDKException {
+        if (city == null || city.trim().isEmpty()) {
+            throw new SDKException("City name cannot be null or empty.");
+        }
+        // These prefixes mark cache keys of ID and coordinate lookups
+        if (city.startsWith(ID_PREFIX) || city.startsWith(COORDINATES_PREFIX)) {
+            throw new SDKException("City name cannot start with '" + ID_PREFIX + "' or '" + COORDINATES_PREFIX + "'.");
+        }
+    }
+
+    private static void validateCoordinates(double lat, double lon) throws SDKException {
+        if (!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180)) {
+            throw new SDKException("Invalid coordinates: " + lat + "," + lon);
+        }
+    }
+
     /**
-     * Start a background poller for cached cities.
+     * Waits for a shared load and rethrows its failure as an {@link SDKException}.
      */
-    private void startPolling() {
-        Runnable poller = () -> {
-            logger.info("Polling started. Updating {} cities", cache.size());
-            List<String> cacheCopy = new ArrayList<>(cache.keySet());
-            cacheCopy.forEach(city -> {
-                try {
-                    updateAndReturnWeather(city);
-                    logger.info("Updated weather for {}", city);
-                } catch (SDKException e) {
-                    logger.error("Polling error for {} city : {}", city, e.getMessage());
-                }
-            });
-        };
+    private static <T> T await(CompletableFuture<T> future) throws SDKException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SDKException sdkException) throw sdkException;
+            throw new SDKException("Unexpected error while loading weather data: " + cause.getMessage(), cause);
+        }
+    }
 
-        scheduler.scheduleWithFixedDelay(
-                poller,
-                POLLING_INTERVAL_MINUTES,
-                POLLING_INTERVAL_MINUTES,
-                TimeUnit.MINUTES
-        );
+    /**
+     * Loads the configured cache snapshot: fresh entries in ON_DEMAND mode, all entries in POLLING mode,
+     * where expired ones seed the refresh set.
+     */
+    private int restoreSnapshot() {
+        if (config.getSnapshotPath() == null) return 0;
+        try {
+            int restored = CacheSnapshot.load(cache, config.getSnapshotPath(), mode == Mode.POLLING);
+            logger.info("Restored {} cities from cache snapshot {}", restored, config.getSnapshotPath());
+            return restored;
+        } catch (IOException e) {
+            logger.warn("Failed to read cache snapshot {}: {}", config.getSnapshotPath(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private void saveSnapshot() {
+        if (config.getSnapshotPath() == null) return;
+        // The final save in delete() may race a periodic one that is still running on a shared scheduler
+        synchronized (snapshotLock) {
+            try {
+                int saved = CacheSnapshot.save(cache, config.getSnapshotPath());
+                logger.debug("Saved {} cities to cache snapshot {}", saved, config.getSnapshotPath());
+            } catch (IOException e) {
+                logger.warn("Failed to write cache snapshot {}: {}", config.getSnapshotPath(), e.getMessage());
+            }
+        }
     }
 
     /**
-     * Gracefully shutdown polling scheduler.
+     * Gracefully shutdown polling scheduler and the virtual threads of asynchronous fetches. Executors shared
+     * with other instances keep running; only this instance's tasks are cancelled.
      */
     public void shutdownPolling() {
-        if (mode == Mode.POLLING && !scheduler.isShutdown()) {
+        if (sharedExecutors) {
+            if (snapshotTask != null) snapshotTask.cancel(false);
+            if (pollingRefresher != null) pollingRefresher.stop();
+        } else if (mode != Mode.POLLING) {
+            // Only periodic snapshots run here: let a running one finish before delete() saves again
             scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
+            awaitTermination(scheduler);
+        } else if (!scheduler.isShutdown()) {
+            scheduler.shutdownNow();
+            // The refresher may be pacing a cycle: interrupt it rather than wait
+            pollingCycles.shutdownNow();
+            awaitTermination(pollingCycles);
+            pollingWorkers.shutdown();
+            awaitTermination(pollingWorkers);
+            awaitTermination(scheduler);
+            logger.info("Polling scheduler for {} stopped.", WeatherService.maskApiKey(apiKey));
+        }
+        // Last, so that refreshes still running above are not cut short
+        if (fetchThreads != null) fetchThreads.close();
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
             }
-            logger.info("Polling scheduler for {} stopped.", apiKey);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 }
\ No newline at end of file
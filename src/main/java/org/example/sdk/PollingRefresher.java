@@ -0,0 +1,278 @@
+package org.example.sdk;
+
+import org.example.concurrent.Backoff;
+import org.example.concurrent.TokenBucket;
+import org.example.error.SDKException;
+import org.example.metrics.SDKMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background refresh pipeline for POLLING mode.
+ * <p>
+ * Every cycle, the cities chosen by the {@link Plan} are dispatched at an even pace over the first half of
+ * the cycle (instead of in one burst), gated by a token bucket matching the upstream plan, and fetched
+ * on a worker pool with bounded concurrency. Cities come in groups that are refreshed together with a
+ * single upstream call, so each group takes one permit of the token bucket. A failed refresh is retried
+ * after a jittered exponential backoff, as long as the retry still runs within the current cycle.
+ * <p>
+ * A cycle lasts one polling interval, or a fraction of it with adaptive polling (see {@link AdaptivePollingPlan}).
+ * <p>
+ * The scheduler only triggers cycles, which then run on a cycle executor, so that pacing a cycle never holds up
+ * the scheduler thread: retries, cache snapshots and, on a shared scheduler, the cycles of other instances.
+ */
+final class PollingRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingRefresher.class);
+    private static final double SPREAD_FRACTION = 0.5;
+
+    @FunctionalInterface
+    interface Plan {
+        /**
+         * @param budget upstream requests the token bucket grants over one cycle
+         * @return the cities to refresh in this cycle, in groups refreshed with one request each
+         */
+        Collection<List<String>> groups(int budget);
+    }
+
+    @FunctionalInterface
+    interface Refresh {
+        /**
+         * @return the failure of every city of the group that could not be refreshed
+         */
+        Map<String, SDKException> refresh(List<String> cities);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final ExecutorService cycles;
+    private final Semaphore concurrency;
+    private final TokenBucket rateLimiter;
+    private final Plan plan;
+    private final Refresh refresh;
+    private final Duration interval; // of one cycle
+    private final int budget;
+    private final int retries;
+    private final Backoff backoff;
+    private final SDKMetrics metrics;
+
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicBoolean cycleRunning = new AtomicBoolean();
+    private volatile long lastCycleDurationNanos = -1;
+    private volatile long currentCycleStart;
+    private volatile boolean stopped;
+    private volatile ScheduledFuture<?> task;
+    private volatile Thread cycleThread; // running the current cycle, if any
+
+    /**
+     * @param cycles runs the cycles triggered by the scheduler; may be shared with other instances
+     */
+    PollingRefresher(ScheduledExecutorService scheduler,
+                     ExecutorService workers,
+                     ExecutorService cycles,
+                     SDKConfig config,
+                     Plan plan,
+                     Refresh refresh) {
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.cycles = cycles;
+        this.concurrency = new Semaphore(config.getPollingConcurrency());
+        int perMinute = config.getPollingRequestsPerMinute();
+        this.rateLimiter = new TokenBucket(perMinute / 60.0, Math.max(1, perMinute / 60));
+        this.plan = plan;
+        this.refresh = refresh;
+        this.interval = config.isAdaptivePolling()
+                ? config.getPollingInterval().dividedBy(AdaptivePollingPlan.TICKS_PER_INTERVAL)
+                : config.getPollingInterval();
+        this.budget = (int) Math.max(1, Math.min(Integer.MAX_VALUE, perMinute * interval.toMillis() / 60_000));
+        this.retries = config.getPollingRetries();
+        Duration retryBackoff = config.getPollingRetryBackoff();
+        Duration maxBackoff = interval.dividedBy(2);
+        this.backoff = new Backoff(retryBackoff, maxBackoff.compareTo(retryBackoff) < 0 ? retryBackoff : maxBackoff);
+        this.metrics = config.getMetrics();
+    }
+
+    /**
+     * @param immediately run the first cycle now instead of after one interval, e.g. for a cache seeded from a snapshot
+     */
+    void start(boolean immediately) {
+        long intervalMs = interval.toMillis();
+        // A cycle that overruns skips the next one instead of overlapping with it
+        task = scheduler.scheduleAtFixedRate(this::dispatchCycle,
+                immediately ? 0 : intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops scheduling cycles and retries and interrupts the current cycle. Only needed on shared executors;
+     * executors of its own are simply shut down. Refreshes already running on the workers finish.
+     */
+    void stop() {
+        stopped = true;
+        if (task != null) task.cancel(false);
+        Thread thread = cycleThread;
+        if (thread != null) thread.interrupt();
+    }
+
+    /**
+     * Number of cities scheduled for refresh that have not been refreshed yet.
+     */
+    int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * Wall-clock duration of the last completed refresh cycle, or null if none has completed yet.
+     */
+    Duration getLastCycleDuration() {
+        long nanos = lastCycleDurationNanos;
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    private void dispatchCycle() {
+        if (stopped || !cycleRunning.compareAndSet(false, true)) return;
+        try {
+            cycles.execute(() -> {
+                cycleThread = Thread.currentThread();
+                try {
+                    // stop() may have missed this thread if it ran before it was published
+                    if (!stopped) runCycle();
+                } finally {
+                    cycleThread = null;
+                    cycleRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cycleRunning.set(false);
+        }
+    }
+
+    private void runCycle() {
+        List<List<String>> snapshot = new ArrayList<>(plan.groups(budget));
+        if (snapshot.isEmpty()) return;
+        int cityCount = 0;
+        for (List<String> group : snapshot) cityCount += group.size();
+        logger.info("Polling started. Updating {} cities in {} requests", cityCount, snapshot.size());
+
+        long start = System.nanoTime();
+        currentCycleStart = start;
+        long spacingNanos = (long) (interval.toNanos() * SPREAD_FRACTION / snapshot.size());
+        AtomicInteger remaining = new AtomicInteger(cityCount);
+        metrics.pollingBacklog(backlog.addAndGet(cityCount));
+        int dispatched = 0;
+        int dispatchedCities = 0;
+        try {
+            for (; dispatched < snapshot.size(); dispatched++) {
+                long delay = start + dispatched * spacingNanos - System.nanoTime();
+                if (delay > 0) TimeUnit.NANOSECONDS.sleep(delay);
+                rateLimiter.acquire();
+                concurrency.acquire();
+                List<String> group = snapshot.get(dispatched);
+                try {
+                    workers.execute(() -> refreshGroup(group, start, remaining, 0));
+                } catch (RejectedExecutionException e) {
+                    concurrency.release();
+                    throw e;
+                }
+                dispatchedCities += group.size();
+            }
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // Shutting down: drop what was not dispatched
+            int dropped = cityCount - dispatchedCities;
+            metrics.pollingBacklog(backlog.addAndGet(-dropped));
+            remaining.addAndGet(-dropped);
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void refreshGroup(List<String> group, long cycleStart, AtomicInteger remaining, int attempt) {
+        Map<String, SDKException> failures = Map.of();
+        boolean refreshed = false;
+        try {
+            if (attempt > 0) {
+                // Retries bypass the pacing, but not the upstream budget
+                rateLimiter.acquire();
+                // A retry runs later than scheduled when the scheduler, the workers or the budget are busy:
+                // past its cycle, it would duplicate the next cycle's refresh of the city
+                if (!withinCycle(cycleStart, System.nanoTime())) {
+                    logger.error("Polling retry for {} city dropped: its cycle is over", group.getFirst());
+                    return;
+                }
+            }
+            failures = refresh.refresh(group);
+            refreshed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (attempt == 0) concurrency.release();
+            for (String city : group) {
+                SDKException failure = failures.get(city);
+                if (failure == null) {
+                    if (refreshed) logger.info("Updated weather for {}", city);
+                    finish(cycleStart, remaining);
+                } else if (!scheduleRetry(city, cycleStart, remaining, attempt, failure)) {
+                    finish(cycleStart, remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if a retry was scheduled; the city then stays in the backlog until the retry finishes
+     */
+    private boolean scheduleRetry(String city, long cycleStart, AtomicInteger remaining, int attempt, SDKException e) {
+        long delayNanos = backoff.delayNanos(attempt);
+        if (attempt >= retries || !withinCycle(cycleStart, System.nanoTime() + delayNanos)) {
+            logger.error("Polling error for {} city : {}", city, e.getMessage());
+            return false;
+        }
+        logger.warn("Polling error for {} city, retrying in {} ms : {}",
+                city, TimeUnit.NANOSECONDS.toMillis(delayNanos), e.getMessage());
+        try {
+            scheduler.schedule(() -> {
+                if (stopped) {
+                    finish(cycleStart, remaining);
+                    return;
+                }
+                try {
+                    workers.execute(() -> refreshGroup(List.of(city), cycleStart, remaining, attempt + 1));
+                } catch (RejectedExecutionException rejected) {
+                    finish(cycleStart, remaining);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (RejectedExecutionException rejected) {
+            return false;
+        }
+    }
+
+    /**
+     * @return whether at the given time the cycle started at {@code cycleStart} is still the current one
+     *         and within its interval
+     */
+    private boolean withinCycle(long cycleStart, long nanoTime) {
+        return cycleStart == currentCycleStart && nanoTime - cycleStart < interval.toNanos();
+    }
+
+    private void finish(long cycleStart, AtomicInteger remaining) {
+        metrics.pollingBacklog(backlog.decrementAndGet());
+        if (remaining.decrementAndGet() == 0) {
+            lastCycleDurationNanos = System.nanoTime() - cycleStart;
+            metrics.pollingCycle(lastCycleDurationNanos);
+            logger.info("Polling cycle finished in {} ms", TimeUnit.NANOSECONDS.toMillis(lastCycleDurationNanos));
+        }
+    }
+}
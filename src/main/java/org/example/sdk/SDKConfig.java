@@ -0,0 +1,653 @@
+package org.example.sdk;
+
+import org.example.cache.RemoteCacheTier;
+import org.example.concurrent.CircuitBreaker;
+import org.example.constant.Mode;
+import org.example.error.SDKException;
+import org.example.geo.CityIndex;
+import org.example.metrics.SDKMetrics;
+import org.example.service.HttpTransport;
+import org.example.service.WeatherService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Immutable configuration of an SDK instance. Create it with {@link #builder()} and pass it to
+ * {@link OpenWeatherMapSDKFactory#getInstance(String, SDKConfig)}.
+ * <p>
+ * Defaults follow the technical documentation: ON_DEMAND mode, 10 cached cities, 10-minute freshness
+ * and a 10-minute polling interval. HTTP settings live in the {@link HttpTransport}.
+ */
+public final class SDKConfig {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    private static final double DEFAULT_REFRESH_AHEAD_FACTOR = 1.0; // disabled: reloads cost API quota
+    private static final Duration DEFAULT_STALE_WHILE_REVALIDATE = Duration.ZERO;
+    private static final int DEFAULT_NEGATIVE_CACHE_MAX_ENTRIES = 1000;
+    private static final Duration DEFAULT_NEGATIVE_CACHE_TTL = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_POLLING_INTERVAL = Duration.ofMinutes(10);
+    private static final int DEFAULT_BATCH_CONCURRENCY = 16;
+    private static final int DEFAULT_POLLING_CONCURRENCY = 4;
+    private static final int DEFAULT_POLLING_REQUESTS_PER_MINUTE = 60; // OpenWeatherMap free plan
+    private static final int DEFAULT_KEY_REQUESTS_PER_MINUTE = 60;
+    private static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    private static final Duration DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int DEFAULT_POLLING_RETRIES = 2;
+    private static final Duration DEFAULT_GROUP_FETCH_WINDOW = Duration.ZERO;
+    private static final Duration DEFAULT_POLLING_RETRY_BACKOFF = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64; // OkHttp dispatcher default
+    private static final int DEFAULT_FORECAST_MAX_ENTRIES = 10;
+    private static final Duration DEFAULT_FORECAST_TTL = Duration.ofHours(3); // upstream issue interval
+
+    private final Mode mode;
+    private final int maxEntries;
+    private final boolean compactStorage;
+    private final Duration ttl;
+    private final double refreshAheadFactor;
+    private final Duration staleWhileRevalidate;
+    private final int negativeCacheMaxEntries;
+    private final CityIndex cityIndex;
+    private final RemoteCacheTier remoteCacheTier;
+    private final Duration negativeCacheTtl;
+    private final Duration pollingInterval;
+    private final boolean adaptivePolling;
+    private final int batchConcurrency;
+    private final int pollingConcurrency;
+    private final int pollingRequestsPerMinute;
+    private final int keyRequestsPerMinute;
+    private final Path snapshotPath;
+    private final Duration snapshotInterval;
+    private final int circuitBreakerFailureThreshold;
+    private final Duration circuitBreakerOpenDuration;
+    private final CircuitBreaker.Listener circuitBreakerListener;
+    private final int pollingRetries;
+    private final Duration pollingRetryBackoff;
+    private final Duration groupFetchWindow;
+    private final boolean virtualThreads;
+    private final int maxConcurrentRequests;
+    private final int forecastMaxEntries;
+    private final Duration forecastTtl;
+    private final HttpTransport transport;
+    private final String baseUrl;
+    private final SDKMetrics metrics;
+
+    private SDKConfig(Builder builder) {
+        this.mode = builder.mode;
+        this.maxEntries = builder.maxEntries;
+        this.compactStorage = builder.compactStorage;
+        this.ttl = builder.ttl;
+        this.refreshAheadFactor = builder.refreshAheadFactor;
+        this.staleWhileRevalidate = builder.staleWhileRevalidate;
+        this.negativeCacheMaxEntries = builder.negativeCacheMaxEntries;
+        this.cityIndex = builder.cityIndex;
+        this.remoteCacheTier = builder.remoteCacheTier;
+        this.negativeCacheTtl = builder.negativeCacheTtl;
+        this.pollingInterval = builder.pollingInterval;
+        this.adaptivePolling = builder.adaptivePolling;
+        this.batchConcurrency = builder.batchConcurrency;
+        this.pollingConcurrency = builder.pollingConcurrency;
+        this.pollingRequestsPerMinute = builder.pollingRequestsPerMinute;
+        this.keyRequestsPerMinute = builder.keyRequestsPerMinute;
+        this.snapshotPath = builder.snapshotPath;
+        this.snapshotInterval = builder.snapshotInterval;
+        this.circuitBreakerFailureThreshold = builder.circuitBreakerFailureThreshold;
+        this.circuitBreakerOpenDuration = builder.circuitBreakerOpenDuration;
+        this.circuitBreakerListener = builder.circuitBreakerListener;
+        this.pollingRetries = builder.pollingRetries;
+        this.pollingRetryBackoff = builder.pollingRetryBackoff;
+        this.groupFetchWindow = builder.groupFetchWindow;
+        this.virtualThreads = builder.virtualThreads;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.forecastMaxEntries = builder.forecastMaxEntries;
+        this.forecastTtl = builder.forecastTtl;
+        this.transport = builder.transport;
+        this.baseUrl = builder.baseUrl;
+        this.metrics = builder.metrics;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default configuration with the given mode.
+     */
+    public static SDKConfig of(Mode mode) {
+        return builder().mode(mode).build();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public boolean isCompactStorage() {
+        return compactStorage;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public double getRefreshAheadFactor() {
+        return refreshAheadFactor;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public int getNegativeCacheMaxEntries() {
+        return negativeCacheMaxEntries;
+    }
+
+    /**
+     * @return how long unknown-city errors are replayed from the negative cache; zero if it is disabled
+     */
+    public Duration getNegativeCacheTtl() {
+        return negativeCacheTtl;
+    }
+
+    /**
+     * @return index resolving city names and coordinates to city IDs, or null
+     */
+    public CityIndex getCityIndex() {
+        return cityIndex;
+    }
+
+    /**
+     * @return cache tier shared with other SDK instances, or null
+     */
+    public RemoteCacheTier getRemoteCacheTier() {
+        return remoteCacheTier;
+    }
+
+    public Duration getPollingInterval() {
+        return pollingInterval;
+    }
+
+    /**
+     * @return whether POLLING mode refreshes cities by how often they are requested
+     */
+    public boolean isAdaptivePolling() {
+        return adaptivePolling;
+    }
+
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    public int getPollingConcurrency() {
+        return pollingConcurrency;
+    }
+
+    public int getPollingRequestsPerMinute() {
+        return pollingRequestsPerMinute;
+    }
+
+    public int getKeyRequestsPerMinute() {
+        return keyRequestsPerMinute;
+    }
+
+    /**
+     * @return cache snapshot file, or null if persistence is disabled
+     */
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public Duration getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * @return consecutive upstream failures that open the circuit breaker, or 0 if it is disabled
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * @return listener for circuit breaker state changes, or null
+     */
+    public CircuitBreaker.Listener getCircuitBreakerListener() {
+        return circuitBreakerListener;
+    }
+
+    public int getPollingRetries() {
+        return pollingRetries;
+    }
+
+    public Duration getPollingRetryBackoff() {
+        return pollingRetryBackoff;
+    }
+
+    /**
+     * @return how long lookups by city ID are gathered into one group request; zero if grouping is disabled
+     */
+    public Duration getGroupFetchWindow() {
+        return groupFetchWindow;
+    }
+
+    /**
+     * @return whether upstream fetches and background work run on virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return maximum number of upstream requests in flight at once when running on virtual threads
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getForecastMaxEntries() {
+        return forecastMaxEntries;
+    }
+
+    public Duration getForecastTtl() {
+        return forecastTtl;
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public SDKMetrics getMetrics() {
+        return metrics;
+    }
+
+    public static final class Builder {
+
+        private Mode mode = Mode.ON_DEMAND;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private boolean compactStorage;
+        private Duration ttl = DEFAULT_TTL;
+        private double refreshAheadFactor = DEFAULT_REFRESH_AHEAD_FACTOR;
+        private Duration staleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE;
+        private int negativeCacheMaxEntries = DEFAULT_NEGATIVE_CACHE_MAX_ENTRIES;
+        private Duration negativeCacheTtl = DEFAULT_NEGATIVE_CACHE_TTL;
+        private CityIndex cityIndex;
+        private RemoteCacheTier remoteCacheTier;
+        private Duration pollingInterval = DEFAULT_POLLING_INTERVAL;
+        private boolean adaptivePolling;
+        private int batchConcurrency = DEFAULT_BATCH_CONCURRENCY;
+        private int pollingConcurrency = DEFAULT_POLLING_CONCURRENCY;
+        private int pollingRequestsPerMinute = DEFAULT_POLLING_REQUESTS_PER_MINUTE;
+        private int keyRequestsPerMinute = DEFAULT_KEY_REQUESTS_PER_MINUTE;
+        private Path snapshotPath;
+        private Duration snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+        private int circuitBreakerFailureThreshold = DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+        private Duration circuitBreakerOpenDuration = DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION;
+        private CircuitBreaker.Listener circuitBreakerListener;
+        private int pollingRetries = DEFAULT_POLLING_RETRIES;
+        private Duration pollingRetryBackoff = DEFAULT_POLLING_RETRY_BACKOFF;
+        private Duration groupFetchWindow = DEFAULT_GROUP_FETCH_WINDOW;
+        private boolean virtualThreads;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        private int forecastMaxEntries = DEFAULT_FORECAST_MAX_ENTRIES;
+        private Duration forecastTtl = DEFAULT_FORECAST_TTL;
+        private HttpTransport transport;
+        private String baseUrl = WeatherService.API_BASE_URL;
+        private SDKMetrics metrics = SDKMetrics.NOOP;
+
+        private Builder() {}
+
+        /**
+         * @param mode ON_DEMAND or POLLING
+         */
+        public Builder mode(Mode mode) {
+            if (mode == null) throw new SDKException("Mode cannot be null.");
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * @param maxEntries maximum number of cities kept in the cache
+         */
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries <= 0) throw new SDKException("Max entries must be positive: " + maxEntries);
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * @param compactStorage keep cached weather as flat primitive records instead of WeatherData object
+         *                       graphs; recommended for caches of many thousands of cities. Each read then
+         *                       returns a new WeatherData instance.
+         */
+        public Builder compactStorage(boolean compactStorage) {
+            this.compactStorage = compactStorage;
+            return this;
+        }
+
+        /**
+         * @param ttl how long cached weather is considered up to date
+         */
+        public Builder ttl(Duration ttl) {
+            this.ttl = requirePositive(ttl, "TTL");
+            return this;
+        }
+
+        /**
+         * @param refreshAheadFactor fraction of the TTL after which a read triggers a background reload
+         *                           while still returning the cached data, e.g. 0.8. Each reload is an extra
+         *                           upstream call; 1.0, the default, disables refresh-ahead
+         */
+        public Builder refreshAheadFactor(double refreshAheadFactor) {
+            if (!(refreshAheadFactor > 0 && refreshAheadFactor <= 1)) {
+                throw new SDKException("Refresh-ahead factor must be in (0, 1]: " + refreshAheadFactor);
+            }
+            this.refreshAheadFactor = refreshAheadFactor;
+            return this;
+        }
+
+        /**
+         * @param staleWhileRevalidate how long after the TTL expired cached data may still be returned
+         *                             immediately while it is reloaded in the background; zero disables it
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = requireNonNegative(staleWhileRevalidate, "Stale-while-revalidate window");
+            return this;
+        }
+
+        /**
+         * @param negativeCacheMaxEntries maximum number of failed lookups remembered, independent of
+         *                                {@link #maxEntries(int)}
+         */
+        public Builder negativeCacheMaxEntries(int negativeCacheMaxEntries) {
+            if (negativeCacheMaxEntries <= 0) {
+                throw new SDKException("Negative cache max entries must be positive: " + negativeCacheMaxEntries);
+            }
+            this.negativeCacheMaxEntries = negativeCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * @param negativeCacheTtl how long a lookup that failed with HTTP 400 or 404 (e.g. an unknown city)
+         *                         fails again without calling the API; zero disables negative caching
+         */
+        public Builder negativeCacheTtl(Duration negativeCacheTtl) {
+            this.negativeCacheTtl = requireNonNegative(negativeCacheTtl, "Negative cache TTL");
+            return this;
+        }
+
+        /**
+         * @param cityIndex local city list (see {@link CityIndex#load(java.nio.file.Path)}); when set, city names
+         *                  and coordinates are resolved to city IDs locally, and the cache is keyed by ID, so
+         *                  "London", "london,GB" and nearby coordinates share one entry. Not set by default.
+         */
+        public Builder cityIndex(CityIndex cityIndex) {
+            this.cityIndex = cityIndex;
+            return this;
+        }
+
+        /**
+         * @param remoteCacheTier second cache tier shared with other SDK instances, e.g. the other replicas of
+         *                        a service (see {@link org.example.cache.FileCacheTier}). A city fetched by
+         *                        one instance is then served by all of them, and in POLLING mode a city that
+         *                        another instance refreshed recently is not fetched again. Not set by default.
+         */
+        public Builder remoteCacheTier(RemoteCacheTier remoteCacheTier) {
+            this.remoteCacheTier = remoteCacheTier;
+            return this;
+        }
+
+        /**
+         * @param pollingInterval delay between refresh cycles in POLLING mode
+         */
+        public Builder pollingInterval(Duration pollingInterval) {
+            this.pollingInterval = requirePositive(pollingInterval, "Polling interval");
+            return this;
+        }
+
+        /**
+         * @param adaptivePolling in POLLING mode, track how often each city is requested and poll by popularity
+         *                        instead of refreshing every cached city once per interval: cities nobody
+         *                        requested recently are no longer polled (they load on demand), and the quota
+         *                        saved keeps popular cities fresher, refreshing them up to four times per
+         *                        interval. Request counts decay every interval, so a city requested only
+         *                        once stops being polled after about one interval. Off by default.
+         */
+        public Builder adaptivePolling(boolean adaptivePolling) {
+            this.adaptivePolling = adaptivePolling;
+            return this;
+        }
+
+        /**
+         * @param batchConcurrency maximum number of upstream requests outstanding during a batch lookup
+         */
+        public Builder batchConcurrency(int batchConcurrency) {
+            if (batchConcurrency <= 0) {
+                throw new SDKException("Batch concurrency must be positive: " + batchConcurrency);
+            }
+            this.batchConcurrency = batchConcurrency;
+            return this;
+        }
+
+        /**
+         * @param pollingConcurrency maximum number of cities refreshed at the same time in POLLING mode
+         */
+        public Builder pollingConcurrency(int pollingConcurrency) {
+            if (pollingConcurrency <= 0) {
+                throw new SDKException("Polling concurrency must be positive: " + pollingConcurrency);
+            }
+            this.pollingConcurrency = pollingConcurrency;
+            return this;
+        }
+
+        /**
+         * @param pollingRequestsPerMinute upstream request budget of the background refresh, per your
+         *                                 OpenWeatherMap plan
+         */
+        public Builder pollingRequestsPerMinute(int pollingRequestsPerMinute) {
+            if (pollingRequestsPerMinute <= 0) {
+                throw new SDKException("Polling request rate must be positive: " + pollingRequestsPerMinute);
+            }
+            this.pollingRequestsPerMinute = pollingRequestsPerMinute;
+            return this;
+        }
+
+        /**
+         * @param keyRequestsPerMinute quota of a single API key; a pooled instance (see
+         *                             {@link OpenWeatherMapSDKFactory#getPooledInstance}) prefers keys that
+         *                             have not used up this rate
+         */
+        public Builder keyRequestsPerMinute(int keyRequestsPerMinute) {
+            if (keyRequestsPerMinute <= 0) {
+                throw new SDKException("Key request rate must be positive: " + keyRequestsPerMinute);
+            }
+            this.keyRequestsPerMinute = keyRequestsPerMinute;
+            return this;
+        }
+
+        /**
+         * Enables cache persistence: the cache is restored from this file on startup, saved to it periodically
+         * and when the SDK is deleted. Disabled by default.
+         *
+         * @param snapshotPath local file for the cache snapshot, or null to disable persistence
+         */
+        public Builder snapshotPath(Path snapshotPath) {
+            this.snapshotPath = snapshotPath;
+            return this;
+        }
+
+        /**
+         * @param snapshotInterval delay between periodic cache snapshots when a snapshot path is set
+         */
+        public Builder snapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = requirePositive(snapshotInterval, "Snapshot interval");
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerFailureThreshold consecutive upstream failures (network errors, HTTP 5xx and 429)
+         *                                       after which requests fail fast, serving stale cached data where
+         *                                       available; 0 disables the circuit breaker
+         */
+        public Builder circuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+            if (circuitBreakerFailureThreshold < 0) {
+                throw new SDKException("Circuit breaker failure threshold must not be negative: "
+                        + circuitBreakerFailureThreshold);
+            }
+            this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerOpenDuration how long requests fail fast before a single probe request is let through
+         */
+        public Builder circuitBreakerOpenDuration(Duration circuitBreakerOpenDuration) {
+            this.circuitBreakerOpenDuration =
+                    requirePositive(circuitBreakerOpenDuration, "Circuit breaker open duration");
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerListener notified of every circuit breaker state change, e.g. for alerting
+         */
+        public Builder circuitBreakerListener(CircuitBreaker.Listener circuitBreakerListener) {
+            this.circuitBreakerListener = circuitBreakerListener;
+            return this;
+        }
+
+        /**
+         * @param pollingRetries how many times a failed background refresh is retried within a polling cycle
+         */
+        public Builder pollingRetries(int pollingRetries) {
+            if (pollingRetries < 0) throw new SDKException("Polling retries must not be negative: " + pollingRetries);
+            this.pollingRetries = pollingRetries;
+            return this;
+        }
+
+        /**
+         * @param pollingRetryBackoff base delay of the first polling retry; it doubles with every further retry
+         *                            and is randomized to spread retries out
+         */
+        public Builder pollingRetryBackoff(Duration pollingRetryBackoff) {
+            this.pollingRetryBackoff = requirePositive(pollingRetryBackoff, "Polling retry backoff");
+            return this;
+        }
+
+        /**
+         * @param groupFetchWindow how long upstream lookups by city ID wait for others to share a single call to
+         *                         the group endpoint (up to {@link WeatherService#MAX_GROUP_SIZE} IDs per call);
+         *                         in POLLING mode, cached cities keyed by ID are then refreshed in groups.
+         *                         Zero (the default) disables grouping. Applies to cities keyed by ID, see
+         *                         {@link #cityIndex(CityIndex)}.
+         */
+        public Builder groupFetchWindow(Duration groupFetchWindow) {
+            this.groupFetchWindow = requireNonNegative(groupFetchWindow, "Group fetch window");
+            return this;
+        }
+
+        /**
+         * @param virtualThreads run asynchronous and batch fetches as blocking calls on virtual threads instead
+         *                       of OkHttp's dispatcher pool, and run the polling scheduler and workers on virtual
+         *                       threads; upstream concurrency is then bounded by
+         *                       {@link #maxConcurrentRequests(int)}. Off by default.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrentRequests maximum number of upstream requests in flight at once when running on
+         *                              virtual threads (64 by default); further lookups wait for a slot
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests <= 0) {
+                throw new SDKException("Max concurrent requests must be positive: " + maxConcurrentRequests);
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * @param forecastMaxEntries maximum number of cities whose forecast is cached, independent of
+         *                           {@link #maxEntries(int)}
+         */
+        public Builder forecastMaxEntries(int forecastMaxEntries) {
+            if (forecastMaxEntries <= 0) {
+                throw new SDKException("Forecast max entries must be positive: " + forecastMaxEntries);
+            }
+            this.forecastMaxEntries = forecastMaxEntries;
+            return this;
+        }
+
+        /**
+         * @param forecastTtl how long a cached forecast is served; it is never served past the 3-hour window
+         *                    it was issued in, so longer values have no effect
+         */
+        public Builder forecastTtl(Duration forecastTtl) {
+            this.forecastTtl = requirePositive(forecastTtl, "Forecast TTL");
+            return this;
+        }
+
+        /**
+         * @param transport HTTP transport (connection pool, dispatcher, timeouts, ...) to use; SDK instances
+         *                  given the same transport share its connections and threads.
+         *                  Defaults to {@link HttpTransport#shared()}.
+         */
+        public Builder transport(HttpTransport transport) {
+            if (transport == null) throw new SDKException("Transport cannot be null.");
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * @param baseUrl URL of the current weather endpoint; override it to target a proxy or a local stand-in
+         */
+        public Builder baseUrl(String baseUrl) {
+            if (baseUrl == null || baseUrl.isBlank()) throw new SDKException("Base URL cannot be null or empty.");
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * @param metrics instrumentation sink, e.g. {@link org.example.metrics.MicrometerSDKMetrics};
+         *                records nothing by default
+         */
+        public Builder metrics(SDKMetrics metrics) {
+            if (metrics == null) throw new SDKException("Metrics cannot be null.");
+            this.metrics = metrics;
+            return this;
+        }
+
+        public SDKConfig build() {
+            if (transport == null) transport = HttpTransport.shared();
+            return new SDKConfig(this);
+        }
+
+        private static Duration requirePositive(Duration value, String name) {
+            if (value == null || value.isNegative() || value.isZero()) {
+                throw new SDKException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+
+        private static Duration requireNonNegative(Duration value, String name) {
+            if (value == null || value.isNegative()) {
+                throw new SDKException(name + " must not be negative: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.sdk;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into a single in-flight call.
+ * <p>
+ * The first caller for a key becomes the leader and runs the loader; callers arriving while the load is
+ * in flight share the leader's future and observe the same result or failure.
+ */
+final class SingleFlight<V> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * Returns the in-flight future for the key, or starts a new load with the given loader.
+     * The loader runs on the calling thread; it must not block when the caller expects an async result.
+     */
+    CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing;
+        }
+        return run(key, promise, loader);
+    }
+
+    /**
+     * Starts a load for the key unless one is already in flight. Unlike {@link #execute}, it never joins
+     * an existing flight, which suits fire-and-forget background reloads.
+     *
+     * @return the new flight, or null if one was already running
+     */
+    CompletableFuture<V> executeIfIdle(String key, Supplier<CompletableFuture<V>> loader) {
+        if (inFlight.containsKey(key)) return null; // cheap check before allocating a promise
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, promise) != null) return null;
+        return run(key, promise, loader);
+    }
+
+    private CompletableFuture<V> run(String key, CompletableFuture<V> promise, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> load;
+        try {
+            load = Objects.requireNonNull(loader.get(), "Loader returned no future");
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, error) -> {
+            // Unregister before completing, so callers woken by the result never join a finished flight
+            inFlight.remove(key, promise);
+            if (error != null) {
+                // Dependent stages wrap failures; share the original cause with every caller
+                promise.completeExceptionally(
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                promise.complete(value);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * Number of calls that joined an existing flight instead of starting their own load.
+     */
+    long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.sdk;
+
+import org.example.constant.Mode;
+import org.example.error.SDKException;
+import org.example.service.WeatherService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registry of SDK instances for many tenants, one per API key, that share their background resources.
+ * <p>
+ * Unlike instances of {@link OpenWeatherMapSDKFactory}, which each own a scheduler thread and polling workers,
+ * all tenants of a registry share one scheduler, one polling worker pool, one executor of polling cycles and
+ * the HTTP transport of the tenant configuration. These run on virtual threads if
+ * {@link SDKConfig#isVirtualThreads()}, as for a single instance. A polling cycle keeps a thread while it is
+ * paced, so only on platform threads does the thread count grow, with the number of tenants polling at once.
+ * <p>
+ * The cache is bounded as a whole: each tenant's cache is a shard limited to its quota, and the quotas of all
+ * tenants never add up to more than {@link Builder#maxTotalEntries(int)}. The budget covers the current weather
+ * caches only; each tenant also keeps up to {@link SDKConfig#getForecastMaxEntries()} forecasts and
+ * {@link SDKConfig#getNegativeCacheMaxEntries()} remembered failures. There are at most as many tenants as
+ * {@code maxTotalEntries}, so the registry holds at most {@code maxTotalEntries} times each of these limits.
+ * Making room for a new tenant evicts the least recently used ones, and tenants not looked up for
+ * {@link Builder#idleTimeout(Duration)} are evicted as well. An evicted tenant is deleted: it stops polling,
+ * and the next lookup of its key starts it afresh with an empty cache.
+ * <p>
+ * Look tenants up with {@link #get(String)} for each request rather than keeping references, since lookups
+ * are what keep a tenant alive.
+ */
+public final class TenantRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+    private static final int DEFAULT_MAX_TOTAL_ENTRIES = 100_000;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final SDKConfig config;
+    private final ToIntFunction<String> cacheQuota;
+    private final int maxTotalEntries;
+    private final long idleTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollingWorkers; // null in ON_DEMAND mode
+    private final ExecutorService pollingCycles; // null in ON_DEMAND mode
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final Object lock = new Object(); // guards adding and removing tenants; never held while building one
+    private int reservedEntries;
+    private boolean closed;
+
+    private TenantRegistry(Builder builder) {
+        this.config = builder.config;
+        this.cacheQuota = builder.cacheQuota != null ? builder.cacheQuota : key -> config.getMaxEntries();
+        this.maxTotalEntries = builder.maxTotalEntries;
+        this.idleTimeoutMs = builder.idleTimeout.toMillis();
+        this.scheduler = OpenWeatherMapSDKImpl.createScheduler(config);
+        boolean polling = config.getMode() == Mode.POLLING;
+        this.pollingWorkers = polling ? OpenWeatherMapSDKImpl.createPollingWorkers(config) : null;
+        this.pollingCycles = polling ? OpenWeatherMapSDKImpl.createPollingCycles(config) : null;
+        long sweepMs = Math.max(1, idleTimeoutMs / 2);
+        scheduler.scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the tenant for the given API key, creating it if it does not exist yet.
+     *
+     * @param apiKey non-empty OpenWeatherMap API key of the tenant
+     * @throws SDKException if the API key or its cache quota is invalid, or the registry is closed
+     */
+    public OpenWeatherMapSDK get(String apiKey) throws SDKException {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new SDKException("API Key cannot be null or empty.");
+        }
+        Tenant tenant = tenants.get(apiKey);
+        if (tenant == null) tenant = create(apiKey);
+        tenant.lastAccessMs = System.currentTimeMillis();
+        return tenant.sdk;
+    }
+
+    /**
+     * Evicts and deletes the tenant for the given API key, if any.
+     */
+    public void release(String apiKey) {
+        if (apiKey == null) return;
+        Tenant tenant;
+        synchronized (lock) {
+            tenant = tenants.remove(apiKey);
+            if (tenant == null) return;
+            reservedEntries -= tenant.quota;
+        }
+        delete(tenant);
+    }
+
+    /**
+     * Number of live tenants.
+     */
+    public int getTenantCount() {
+        return tenants.size();
+    }
+
+    /**
+     * Sum of the cache quotas of all live tenants; never above {@link Builder#maxTotalEntries(int)}.
+     */
+    public int getReservedEntries() {
+        synchronized (lock) {
+            return reservedEntries;
+        }
+    }
+
+    /**
+     * Deletes all tenants and stops the shared scheduler and polling workers.
+     */
+    @Override
+    public void close() {
+        List<Tenant> all;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            all = new ArrayList<>(tenants.values());
+            tenants.clear();
+            reservedEntries = 0;
+        }
+        all.forEach(TenantRegistry::delete);
+        scheduler.shutdownNow();
+        if (pollingCycles != null) pollingCycles.shutdownNow();
+        if (pollingWorkers != null) {
+            pollingWorkers.shutdown();
+            try {
+                if (!pollingWorkers.awaitTermination(5, TimeUnit.SECONDS)) {
+                    pollingWorkers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                pollingWorkers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Tenant create(String apiKey) {
+        int quota = cacheQuota.applyAsInt(apiKey);
+        if (quota <= 0 || quota > maxTotalEntries) {
+            throw new SDKException("Cache quota of a tenant must be between 1 and " + maxTotalEntries + ": " + quota);
+        }
+        synchronized (lock) {
+            if (closed) throw new SDKException("Tenant registry is closed.");
+            Tenant existing = tenants.get(apiKey);
+            if (existing != null) return existing;
+        }
+        // Built outside the lock so that a slow setup does not block lookups of other tenants. Concurrent
+        // first lookups of the same key may each build one; all but the first published are deleted.
+        WeatherService service = new WeatherService(apiKey, config.getTransport().client(), config.getBaseUrl(),
+                config.getMetrics());
+        Tenant tenant = new Tenant(apiKey, quota, new OpenWeatherMapSDKImpl(apiKey, config, service,
+                OpenWeatherMapSDKImpl.createCache(config, quota), scheduler, pollingWorkers, pollingCycles));
+        List<Tenant> evicted = new ArrayList<>();
+        Tenant published;
+        synchronized (lock) {
+            published = closed ? null : tenants.get(apiKey);
+            if (!closed && published == null) {
+                while (reservedEntries + quota > maxTotalEntries) {
+                    Tenant victim = leastRecentlyUsed();
+                    tenants.remove(victim.apiKey);
+                    reservedEntries -= victim.quota;
+                    evicted.add(victim);
+                }
+                tenants.put(apiKey, tenant);
+                reservedEntries += quota;
+                published = tenant;
+            }
+        }
+        if (published != tenant) {
+            delete(tenant);
+            if (published == null) throw new SDKException("Tenant registry is closed.");
+            return published;
+        }
+        if (!evicted.isEmpty()) logger.info("Evicted {} tenants to make room for a new one", evicted.size());
+        evicted.forEach(TenantRegistry::delete);
+        return tenant;
+    }
+
+    private Tenant leastRecentlyUsed() {
+        Tenant oldest = null;
+        for (Tenant tenant : tenants.values()) {
+            if (oldest == null || tenant.lastAccessMs < oldest.lastAccessMs) oldest = tenant;
+        }
+        return oldest;
+    }
+
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        List<Tenant> evicted = new ArrayList<>();
+        synchronized (lock) {
+            for (Iterator<Tenant> it = tenants.values().iterator(); it.hasNext(); ) {
+                Tenant tenant = it.next();
+                if (tenant.lastAccessMs >= idleSince) continue;
+                it.remove();
+                reservedEntries -= tenant.quota;
+                evicted.add(tenant);
+            }
+        }
+        if (!evicted.isEmpty()) logger.info("Evicted {} idle tenants", evicted.size());
+        evicted.forEach(TenantRegistry::delete);
+    }
+
+    private static void delete(Tenant tenant) {
+        try {
+            tenant.sdk.delete();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete tenant {}: {}", WeatherService.maskApiKey(tenant.apiKey), e.getMessage());
+        }
+    }
+
+    private static final class Tenant {
+
+        private final String apiKey;
+        private final int quota;
+        private final OpenWeatherMapSDK sdk;
+        private volatile long lastAccessMs = System.currentTimeMillis();
+
+        Tenant(String apiKey, int quota, OpenWeatherMapSDK sdk) {
+            this.apiKey = apiKey;
+            this.quota = quota;
+            this.sdk = sdk;
+        }
+    }
+
+    public static final class Builder {
+
+        private SDKConfig config = SDKConfig.of(Mode.ON_DEMAND);
+        private ToIntFunction<String> cacheQuota;
+        private int maxTotalEntries = DEFAULT_MAX_TOTAL_ENTRIES;
+        private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+        private Builder() {}
+
+        /**
+         * @param config configuration of every tenant; its transport is shared by all of them.
+         *               Cache snapshots are not supported per tenant.
+         */
+        public Builder config(SDKConfig config) {
+            if (config == null) throw new SDKException("SDK configuration cannot be null.");
+            if (config.getSnapshotPath() != null) {
+                throw new SDKException("Cache snapshots are not supported for tenants of a registry.");
+            }
+            this.config = config;
+            return this;
+        }
+
+        /**
+         * @param cacheQuota maximum number of cached cities per tenant, by API key, e.g. by the tenant's plan;
+         *                   defaults to {@link SDKConfig#getMaxEntries()} for every tenant
+         */
+        public Builder cacheQuota(ToIntFunction<String> cacheQuota) {
+            if (cacheQuota == null) throw new SDKException("Cache quota cannot be null.");
+            this.cacheQuota = cacheQuota;
+            return this;
+        }
+
+        /**
+         * @param maxTotalEntries maximum number of cached cities across all tenants
+         */
+        public Builder maxTotalEntries(int maxTotalEntries) {
+            if (maxTotalEntries <= 0) throw new SDKException("Max total entries must be positive: " + maxTotalEntries);
+            this.maxTotalEntries = maxTotalEntries;
+            return this;
+        }
+
+        /**
+         * @param idleTimeout how long a tenant may go without lookups before it is evicted
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+                throw new SDKException("Idle timeout must be positive: " + idleTimeout);
+            }
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public TenantRegistry build() {
+            return new TenantRegistry(this);
+        }
+    }
+}
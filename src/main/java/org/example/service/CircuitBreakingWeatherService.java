@@ -0,0 +1,155 @@
+package org.example.service;
+
+import org.example.concurrent.CircuitBreaker;
+import org.example.error.CircuitOpenException;
+import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
+import org.example.model.WeatherData;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * {@link WeatherSource} decorator that stops calling the API while it is failing.
+ * <p>
+ * Network errors (including timeouts), HTTP 5xx and HTTP 429 count as upstream failures; any other
+ * response, including client errors such as 404, shows that the API is reachable. While the breaker is
+ * open, calls fail immediately with {@link CircuitOpenException} instead of waiting for the HTTP timeouts.
+ */
+public class CircuitBreakingWeatherService implements WeatherSource {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final WeatherSource delegate;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakingWeatherService(WeatherSource delegate, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public WeatherData fetchWeather(String city) throws SDKException {
+        return guard(city, () -> delegate.fetchWeather(city));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherAsync(String city) {
+        return guardAsync(city, () -> delegate.fetchWeatherAsync(city));
+    }
+
+    @Override
+    public WeatherData fetchWeatherById(long cityId) throws SDKException {
+        return guard("city ID " + cityId, () -> delegate.fetchWeatherById(cityId));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByIdAsync(long cityId) {
+        return guardAsync("city ID " + cityId, () -> delegate.fetchWeatherByIdAsync(cityId));
+    }
+
+    @Override
+    public WeatherData fetchWeatherByCoordinates(double lat, double lon) throws SDKException {
+        return guard("coordinates " + lat + "," + lon, () -> delegate.fetchWeatherByCoordinates(lat, lon));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByCoordinatesAsync(double lat, double lon) {
+        return guardAsync("coordinates " + lat + "," + lon, () -> delegate.fetchWeatherByCoordinatesAsync(lat, lon));
+    }
+
+    @Override
+    public List<WeatherData> fetchGroup(Collection<Long> cityIds) throws SDKException {
+        return guard("city IDs " + cityIds, () -> delegate.fetchGroup(cityIds));
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> fetchGroupAsync(Collection<Long> cityIds) {
+        return guardAsync("city IDs " + cityIds, () -> delegate.fetchGroupAsync(cityIds));
+    }
+
+    @Override
+    public ForecastSeries fetchForecast(String city) throws SDKException {
+        return guard("forecast for " + city, () -> delegate.fetchForecast(city));
+    }
+
+    @Override
+    public ForecastSeries fetchForecastById(long cityId) throws SDKException {
+        return guard("forecast for city ID " + cityId, () -> delegate.fetchForecastById(cityId));
+    }
+
+    @Override
+    public ForecastSeries fetchForecastByCoordinates(double lat, double lon) throws SDKException {
+        return guard("forecast for coordinates " + lat + "," + lon,
+                () -> delegate.fetchForecastByCoordinates(lat, lon));
+    }
+
+    private <T> T guard(String subject, Supplier<T> call) throws SDKException {
+        if (!breaker.tryAcquirePermission()) throw circuitOpen(subject);
+        try {
+            T data = call.get();
+            breaker.onSuccess();
+            return data;
+        } catch (SDKException e) {
+            record(e);
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> guardAsync(String subject, Supplier<CompletableFuture<T>> call) {
+        if (!breaker.tryAcquirePermission()) return CompletableFuture.failedFuture(circuitOpen(subject));
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+        future.whenComplete((data, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                return;
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof SDKException e) {
+                record(e);
+            } else {
+                breaker.onIgnored();
+            }
+        });
+        return future;
+    }
+
+    private void record(SDKException e) {
+        if (isUpstreamFailure(e)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private static boolean isUpstreamFailure(SDKException e) {
+        int status = e.getStatusCode();
+        if (status >= 500 || status == TOO_MANY_REQUESTS) return true;
+        Throwable cause = e.getCause();
+        return status == SDKException.NO_STATUS
+                && cause instanceof IOException
+                && !(cause instanceof MalformedJsonException);
+    }
+
+    private static CircuitOpenException circuitOpen(String subject) {
+        return new CircuitOpenException(
+                "OpenWeatherMap API is failing, request for " + subject + " was not sent (circuit breaker open)");
+    }
+}
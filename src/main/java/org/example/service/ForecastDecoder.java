@@ -0,0 +1,142 @@
+package org.example.service;
+
+import com.google.gson.stream.JsonToken;
+import okio.BufferedSource;
+import org.example.model.ForecastSeries;
+
+import java.io.IOException;
+
+/**
+ * Streaming decoder for the OpenWeatherMap 5-day/3-hour forecast response.
+ * <p>
+ * Like {@link WeatherDataDecoder}, reads the UTF-8 bytes with {@link Utf8JsonReader}, but writes each point of
+ * the {@code list} straight into the columns of a {@link ForecastSeries} instead of creating an object per point.
+ */
+public final class ForecastDecoder {
+
+    private ForecastDecoder() {}
+
+    /**
+     * @throws IOException if the payload is not valid JSON or cannot be read
+     */
+    public static ForecastSeries decode(BufferedSource json) throws IOException {
+        ForecastSeries.Builder series = ForecastSeries.builder();
+        try (Utf8JsonReader reader = new Utf8JsonReader(json)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (skipNull(reader)) continue;
+                switch (field) {
+                    case "list" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            readPoint(reader, series);
+                        }
+                        reader.endArray();
+                    }
+                    case "city" -> readCity(reader, series);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return series.build();
+    }
+
+    private static void readPoint(Utf8JsonReader reader, ForecastSeries.Builder series) throws IOException {
+        long time = 0;
+        double temperature = 0;
+        double feelsLike = 0;
+        int humidity = 0;
+        double windSpeed = 0;
+        double precipitationProbability = 0;
+        String conditionMain = null;
+        String conditionDescription = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            switch (field) {
+                case "dt" -> time = reader.nextLong();
+                case "main" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (skipNull(reader)) continue;
+                        switch (name) {
+                            case "temp" -> temperature = reader.nextDouble();
+                            case "feels_like" -> feelsLike = reader.nextDouble();
+                            case "humidity" -> humidity = reader.nextInt();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "weather" -> {
+                    reader.beginArray();
+                    // Only the primary condition is kept, like WeatherData#getWeather()
+                    if (reader.hasNext()) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String name = reader.nextName();
+                            if (skipNull(reader)) continue;
+                            switch (name) {
+                                case "main" -> conditionMain = reader.nextString();
+                                case "description" -> conditionDescription = reader.nextString();
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    while (reader.hasNext()) {
+                        reader.skipValue();
+                    }
+                    reader.endArray();
+                }
+                case "wind" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (skipNull(reader)) continue;
+                        if (name.equals("speed")) {
+                            windSpeed = reader.nextDouble();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "pop" -> precipitationProbability = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        series.addPoint(time, temperature, feelsLike, humidity, windSpeed, precipitationProbability,
+                conditionMain, conditionDescription);
+    }
+
+    private static void readCity(Utf8JsonReader reader, ForecastSeries.Builder series) throws IOException {
+        long cityId = 0;
+        String name = null;
+        int timezone = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            switch (field) {
+                case "id" -> cityId = reader.nextLong();
+                case "name" -> name = reader.nextString();
+                case "timezone" -> timezone = reader.nextInt();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        series.city(cityId, name, timezone);
+    }
+
+    private static boolean skipNull(Utf8JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NULL) return false;
+        reader.nextNull();
+        return true;
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.service;
+
+import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
+import org.example.model.WeatherData;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WeatherSource} decorator that coalesces lookups by city ID into group requests.
+ * <p>
+ * The first ID requested opens a gathering window; every ID requested until it closes, up to
+ * {@link WeatherService#MAX_GROUP_SIZE}, is fetched with a single call to the group endpoint, and the combined
+ * response is split by city ID. A full group is sent immediately, and the next ID opens a window of its own.
+ * A window holding a single ID uses the regular endpoint. If the group endpoint rejects a request (HTTP 400
+ * or 404, e.g. one invalid ID), its IDs are fetched one by one so that a single bad ID does not fail the others.
+ * <p>
+ * Lookups by name and by coordinates, and forecasts, are passed through unchanged.
+ */
+public class GroupFetchingWeatherService implements WeatherSource {
+
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+
+    private final WeatherSource delegate;
+    private final long windowNanos;
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<WeatherData>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param window how long to wait for more IDs after the first one before sending the group request
+     */
+    public GroupFetchingWeatherService(WeatherSource delegate, Duration window) {
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public WeatherData fetchWeatherById(long cityId) throws SDKException {
+        try {
+            return fetchWeatherByIdAsync(cityId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SDKException sdkException) throw sdkException;
+            throw new SDKException("Unexpected error while loading weather data: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Adds the ID to the current group. Cancelling the returned future does not cancel the group request.
+     */
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByIdAsync(long cityId) {
+        CompletableFuture<WeatherData> result;
+        Map<Long, CompletableFuture<WeatherData>> full = null;
+        Map<Long, CompletableFuture<WeatherData>> opened = null;
+        synchronized (lock) {
+            result = pending.get(cityId);
+            if (result != null) return result.copy();
+            result = new CompletableFuture<>();
+            pending.put(cityId, result);
+            if (pending.size() == 1) opened = pending;
+            if (pending.size() == WeatherService.MAX_GROUP_SIZE) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (full != null) {
+            send(full);
+        } else if (opened != null) {
+            Map<Long, CompletableFuture<WeatherData>> group = opened;
+            CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS).execute(() -> flush(group));
+        }
+        return result.copy();
+    }
+
+    /**
+     * Sends the group at the end of its window, unless it was already sent full.
+     */
+    private void flush(Map<Long, CompletableFuture<WeatherData>> group) {
+        synchronized (lock) {
+            // Otherwise this timer would cut short the window of the next group
+            if (pending != group) return;
+            pending = new LinkedHashMap<>();
+        }
+        send(group);
+    }
+
+    /**
+     * Sends a closed group; from here on the map is owned by this request only.
+     */
+    private void send(Map<Long, CompletableFuture<WeatherData>> group) {
+        if (group.size() == 1) {
+            group.forEach(this::fetchSingle);
+            return;
+        }
+        delegate.fetchGroupAsync(List.copyOf(group.keySet())).whenComplete((list, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause instanceof SDKException e
+                        && (e.getStatusCode() == BAD_REQUEST || e.getStatusCode() == NOT_FOUND)) {
+                    group.forEach(this::fetchSingle);
+                } else {
+                    group.values().forEach(future -> future.completeExceptionally(cause));
+                }
+                return;
+            }
+            for (WeatherData data : list) {
+                CompletableFuture<WeatherData> future = group.remove(data.getCityId());
+                if (future != null) future.complete(data);
+            }
+            group.forEach((cityId, future) -> future.completeExceptionally(
+                    new SDKException("City ID " + cityId + " is missing from the group response", NOT_FOUND)));
+        });
+    }
+
+    private void fetchSingle(long cityId, CompletableFuture<WeatherData> future) {
+        delegate.fetchWeatherByIdAsync(cityId).whenComplete((data, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                future.complete(data);
+            }
+        });
+    }
+
+    @Override
+    public WeatherData fetchWeather(String city) throws SDKException {
+        return delegate.fetchWeather(city);
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherAsync(String city) {
+        return delegate.fetchWeatherAsync(city);
+    }
+
+    @Override
+    public WeatherData fetchWeatherByCoordinates(double lat, double lon) throws SDKException {
+        return delegate.fetchWeatherByCoordinates(lat, lon);
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByCoordinatesAsync(double lat, double lon) {
+        return delegate.fetchWeatherByCoordinatesAsync(lat, lon);
+    }
+
+    @Override
+    public List<WeatherData> fetchGroup(Collection<Long> cityIds) throws SDKException {
+        return delegate.fetchGroup(cityIds);
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> fetchGroupAsync(Collection<Long> cityIds) {
+        return delegate.fetchGroupAsync(cityIds);
+    }
+
+    @Override
+    public ForecastSeries fetchForecast(String city) throws SDKException {
+        return delegate.fetchForecast(city);
+    }
+
+    @Override
+    public ForecastSeries fetchForecastById(long cityId) throws SDKException {
+        return delegate.fetchForecastById(cityId);
+    }
+
+    @Override
+    public ForecastSeries fetchForecastByCoordinates(double lat, double lon) throws SDKException {
+        return delegate.fetchForecastByCoordinates(lat, lon);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.service;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport shared by {@link WeatherService} instances: one OkHttp connection pool, dispatcher and
+ * thread pool, however many SDK instances (API keys) use it.
+ * <p>
+ * {@link #shared()} is the process-wide default. Build a dedicated transport with {@link #builder()} to tune
+ * pooling, concurrency, compression, timeouts or HTTP/2, and pass the same instance to every SDK that should
+ * share it.
+ */
+public final class HttpTransport {
+
+    private final OkHttpClient client;
+
+    private HttpTransport(Builder builder) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(builder.maxRequests);
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+        OkHttpClient.Builder client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(builder.maxIdleConnections,
+                        builder.keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(builder.connectTimeout)
+                .readTimeout(builder.readTimeout)
+                .callTimeout(builder.callTimeout);
+        if (!builder.http2) {
+            client.protocols(List.of(Protocol.HTTP_1_1));
+        }
+        if (!builder.gzip) {
+            // An explicit Accept-Encoding disables OkHttp's transparent gzip
+            client.addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+        this.client = client.build();
+    }
+
+    /**
+     * Returns the process-wide transport with default settings, created on first use.
+     */
+    public static HttpTransport shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public OkHttpClient client() {
+        return client;
+    }
+
+    /**
+     * Releases pooled connections and stops the dispatcher threads once running calls finish.
+     * Do not call it on {@link #shared()}.
+     */
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    private static final class SharedHolder {
+        private static final HttpTransport INSTANCE = builder().build();
+    }
+
+    public static final class Builder {
+
+        private int maxIdleConnections = 16;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = 128;
+        private int maxRequestsPerHost = 64; // all traffic goes to a single host
+        private boolean gzip = true;
+        private boolean http2 = true;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration callTimeout = Duration.ZERO; // no overall limit
+
+        private Builder() {}
+
+        /**
+         * @param maxIdleConnections idle connections kept in the pool for reuse
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * @param keepAlive how long an idle pooled connection is kept open
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * @param maxRequests maximum number of concurrent asynchronous calls
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost maximum number of concurrent asynchronous calls to the API host
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param gzip request gzip-compressed responses (on by default)
+         */
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * @param http2 negotiate HTTP/2 where the server supports it (on by default); false forces HTTP/1.1
+         */
+        public Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * @param callTimeout limit for a complete HTTP call, zero for none
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        public HttpTransport build() {
+            return new HttpTransport(this);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.service;
+
+import org.example.concurrent.TokenBucket;
+import org.example.error.SDKException;
+import org.example.metrics.SDKMetrics;
+import org.example.model.WeatherData;
+import okhttp3.OkHttpClient;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link WeatherService} that spreads requests over several API keys.
+ * <p>
+ * Keys are used round-robin, preferring keys that still have budget left within their per-minute quota.
+ * A key answered with HTTP 429 is put into exponential backoff (1 s doubling up to 1 min) and the request is
+ * retried on the next key. When every key is over its quota the request is still sent and the API decides;
+ * only when every key is backing off does the call fail fast with a 429 {@link SDKException}.
+ */
+public class KeyPoolWeatherService extends WeatherService {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long INITIAL_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<KeySlot> slots;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param apiKeys distinct OpenWeatherMap API keys; duplicates are ignored
+     * @param requestsPerMinutePerKey quota of a single key
+     */
+    public KeyPoolWeatherService(Collection<String> apiKeys, OkHttpClient httpClient, String baseUrl,
+                                 SDKMetrics metrics, int requestsPerMinutePerKey) {
+        super(null, httpClient, baseUrl, metrics);
+        if (apiKeys == null || apiKeys.isEmpty()) {
+            throw new SDKException("API key pool cannot be empty.");
+        }
+        List<KeySlot> slots = new ArrayList<>();
+        for (String apiKey : new LinkedHashSet<>(apiKeys)) {
+            if (apiKey == null || apiKey.trim().isEmpty()) {
+                throw new SDKException("API Key cannot be null or empty.");
+            }
+            slots.add(new KeySlot(new WeatherService(apiKey, httpClient, baseUrl, metrics), apiKey,
+                    requestsPerMinutePerKey));
+        }
+        this.slots = List.copyOf(slots);
+    }
+
+    @Override
+    protected <T> T fetch(Endpoint endpoint, Query query, String subject, ResponseDecoder<T> decoder)
+            throws SDKException {
+        SDKException throttled = null;
+        for (int attempt = 0; attempt < slots.size(); attempt++) {
+            KeySlot slot = select();
+            try {
+                T data = slot.service.fetch(endpoint, query, subject, decoder);
+                slot.onSuccess();
+                return data;
+            } catch (SDKException e) {
+                if (e.getStatusCode() != TOO_MANY_REQUESTS) throw e;
+                slot.onThrottled();
+                throttled = e;
+            }
+        }
+        throw throttled;
+    }
+
+    @Override
+    protected <T> CompletableFuture<T> fetchAsync(Endpoint endpoint, Query query, String subject,
+                                                  ResponseDecoder<T> decoder) {
+        return fetchAsync(endpoint, query, subject, decoder, slots.size());
+    }
+
+    private <T> CompletableFuture<T> fetchAsync(Endpoint endpoint, Query query, String subject,
+                                                ResponseDecoder<T> decoder, int attemptsLeft) {
+        KeySlot slot;
+        try {
+            slot = select();
+        } catch (SDKException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> call = slot.service.fetchAsync(endpoint, query, subject, decoder);
+        CompletableFuture<T> result = call
+                .thenApply(data -> {
+                    slot.onSuccess();
+                    return data;
+                })
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof SDKException e && e.getStatusCode() == TOO_MANY_REQUESTS) {
+                        slot.onThrottled();
+                        if (attemptsLeft > 1) return fetchAsync(endpoint, query, subject, decoder, attemptsLeft - 1);
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                });
+        result.whenComplete((data, error) -> {
+            if (result.isCancelled()) call.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the per-key request counters, in pool order
+     */
+    public List<KeyStatus> getKeyStatuses() {
+        long now = System.nanoTime();
+        List<KeyStatus> statuses = new ArrayList<>(slots.size());
+        for (KeySlot slot : slots) {
+            statuses.add(new KeyStatus(slot.maskedKey, slot.requests.sum(), slot.throttled.sum(),
+                    slot.isBackingOff(now)));
+        }
+        return statuses;
+    }
+
+    /**
+     * Picks the next key round-robin, skipping keys in backoff and, if possible, keys over their quota.
+     * Taking a slot counts as one request against its key.
+     */
+    private KeySlot select() throws SDKException {
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), slots.size());
+        KeySlot fallback = null;
+        for (int i = 0; i < slots.size(); i++) {
+            KeySlot slot = slots.get((start + i) % slots.size());
+            if (slot.isBackingOff(now)) continue;
+            if (slot.quota.tryAcquire()) {
+                slot.requests.increment();
+                return slot;
+            }
+            if (fallback == null) fallback = slot;
+        }
+        if (fallback == null) {
+            throw new SDKException("All API keys are rate limited by the OpenWeatherMap API (HTTP 429).",
+                    TOO_MANY_REQUESTS);
+        }
+        fallback.requests.increment();
+        return fallback;
+    }
+
+    private static final class KeySlot {
+
+        private final WeatherService service;
+        private final String maskedKey;
+        private final TokenBucket quota;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+        private volatile long backoffUntilNanos = System.nanoTime();
+
+        KeySlot(WeatherService service, String apiKey, int requestsPerMinute) {
+            this.service = service;
+            this.maskedKey = maskApiKey(apiKey);
+            this.quota = new TokenBucket(requestsPerMinute / 60.0, Math.max(1, requestsPerMinute / 60));
+        }
+
+        boolean isBackingOff(long now) {
+            return backoffUntilNanos - now > 0;
+        }
+
+        void onSuccess() {
+            consecutiveThrottles.set(0);
+        }
+
+        void onThrottled() {
+            throttled.increment();
+            int streak = consecutiveThrottles.incrementAndGet();
+            long delay = Math.min(MAX_BACKOFF_NANOS, INITIAL_BACKOFF_NANOS << Math.min(streak - 1, 6));
+            backoffUntilNanos = System.nanoTime() + delay;
+        }
+    }
+
+    /**
+     * Request counters of one key of the pool. The key itself is masked to its last four characters.
+     */
+    public static final class KeyStatus {
+
+        private final String maskedKey;
+        private final long requests;
+        private final long throttled;
+        private final boolean backingOff;
+
+        KeyStatus(String maskedKey, long requests, long throttled, boolean backingOff) {
+            this.maskedKey = maskedKey;
+            this.requests = requests;
+            this.throttled = throttled;
+            this.backingOff = backingOff;
+        }
+
+        public String getMaskedKey() {
+            return maskedKey;
+        }
+
+        /**
+         * @return requests sent with this key, including retries
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return responses with HTTP 429 received for this key
+         */
+        public long getThrottled() {
+            return throttled;
+        }
+
+        public boolean isBackingOff() {
+            return backingOff;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package org.example.service;
+
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Pull parser reading JSON straight from the UTF-8 bytes of a response body.
+ * <p>
+ * Offers the subset of Gson's {@link com.google.gson.stream.JsonReader} API that {@link WeatherDataDecoder} uses,
+ * but works on okio's buffer instead of a decoded char stream: structure and numbers are matched as bytes,
+ * integers are parsed without an intermediate string, only names and string values that are returned get
+ * decoded, and skipped values are stepped over without decoding. Input must be strict JSON; the grammar
+ * of a number is only checked when its value is read.
+ */
+final class Utf8JsonReader implements Closeable {
+
+    private static final ByteString STRING_SPECIAL = ByteString.encodeUtf8("\"\\");
+    private static final int MAX_DEPTH = 255;
+    private static final int MAX_FAST_DIGITS = 18; // always fits in a long
+
+    // What the next token is, once peeked
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_TRUE = 5;
+    private static final int PEEKED_FALSE = 6;
+    private static final int PEEKED_NULL = 7;
+    private static final int PEEKED_STRING = 8;  // opening quote consumed
+    private static final int PEEKED_NAME = 9;    // opening quote consumed
+    private static final int PEEKED_LONG = 10;   // consumed, value in peekedLong
+    private static final int PEEKED_NUMBER = 11; // peekedNumberLength bytes at the head of the buffer
+    private static final int PEEKED_EOF = 12;
+
+    // Nesting scopes
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    private final BufferedSource source;
+    private final Buffer buffer;
+    private int peeked = PEEKED_NONE;
+    private long peekedLong;
+    private int peekedNumberLength;
+    private int[] stack = new int[16];
+    private int stackSize = 1;
+
+    Utf8JsonReader(BufferedSource source) {
+        this.source = source;
+        this.buffer = source.getBuffer();
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    void beginObject() throws IOException {
+        consume(PEEKED_BEGIN_OBJECT, "BEGIN_OBJECT");
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        consume(PEEKED_END_OBJECT, "END_OBJECT");
+        stackSize--;
+    }
+
+    void beginArray() throws IOException {
+        consume(PEEKED_BEGIN_ARRAY, "BEGIN_ARRAY");
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        consume(PEEKED_END_ARRAY, "END_ARRAY");
+        stackSize--;
+    }
+
+    /**
+     * @return whether the current object or array has another element
+     */
+    boolean hasNext() throws IOException {
+        int p = peekInternal();
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF;
+    }
+
+    JsonToken peek() throws IOException {
+        return switch (peekInternal()) {
+            case PEEKED_BEGIN_OBJECT -> JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT -> JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY -> JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY -> JsonToken.END_ARRAY;
+            case PEEKED_TRUE, PEEKED_FALSE -> JsonToken.BOOLEAN;
+            case PEEKED_NULL -> JsonToken.NULL;
+            case PEEKED_STRING -> JsonToken.STRING;
+            case PEEKED_NAME -> JsonToken.NAME;
+            case PEEKED_LONG, PEEKED_NUMBER -> JsonToken.NUMBER;
+            default -> JsonToken.END_DOCUMENT;
+        };
+    }
+
+    String nextName() throws IOException {
+        consume(PEEKED_NAME, "a name");
+        return readString();
+    }
+
+    /**
+     * Returns a string value, or the literal of a number value.
+     */
+    String nextString() throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return Long.toString(peekedLong);
+        }
+        return numberOrString(p, "a string");
+    }
+
+    boolean nextBoolean() throws IOException {
+        int p = peekInternal();
+        if (p != PEEKED_TRUE && p != PEEKED_FALSE) throw unexpected("a boolean");
+        peeked = PEEKED_NONE;
+        return p == PEEKED_TRUE;
+    }
+
+    void nextNull() throws IOException {
+        consume(PEEKED_NULL, "null");
+    }
+
+    /**
+     * Returns a number value, or a string value holding a number.
+     */
+    double nextDouble() throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return peekedLong;
+        }
+        return parseDouble(numberOrString(p, "a double"), "a double");
+    }
+
+    long nextLong() throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return peekedLong;
+        }
+        String literal = numberOrString(p, "a long");
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            double value = parseDouble(literal, "a long");
+            long result = (long) value;
+            if (result != value) throw syntaxError("Expected a long but was " + literal);
+            return result;
+        }
+    }
+
+    int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) throw syntaxError("Expected an int but was " + value);
+        return (int) value;
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without decoding any string in it.
+     */
+    void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int p = peekInternal();
+            if (depth == 0 && (p == PEEKED_END_OBJECT || p == PEEKED_END_ARRAY || p == PEEKED_EOF)) {
+                throw unexpected("a value");
+            }
+            peeked = PEEKED_NONE;
+            switch (p) {
+                case PEEKED_BEGIN_OBJECT -> {
+                    push(EMPTY_OBJECT);
+                    depth++;
+                }
+                case PEEKED_BEGIN_ARRAY -> {
+                    push(EMPTY_ARRAY);
+                    depth++;
+                }
+                case PEEKED_END_OBJECT, PEEKED_END_ARRAY -> {
+                    stackSize--;
+                    depth--;
+                }
+                case PEEKED_STRING, PEEKED_NAME -> skipString();
+                case PEEKED_NUMBER -> buffer.skip(peekedNumberLength);
+                default -> {} // literals and integers are consumed when peeked
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stack[0] = CLOSED;
+        stackSize = 1;
+        source.close();
+    }
+
+    private int peekInternal() throws IOException {
+        return peeked != PEEKED_NONE ? peeked : doPeek();
+    }
+
+    private int doPeek() throws IOException {
+        int scope = stack[stackSize - 1];
+        switch (scope) {
+            case EMPTY_ARRAY -> stack[stackSize - 1] = NONEMPTY_ARRAY;
+            case NONEMPTY_ARRAY -> {
+                int c = readNonWhitespace();
+                if (c == ']') return peeked = PEEKED_END_ARRAY;
+                if (c != ',') throw syntaxError("Unterminated array");
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                stack[stackSize - 1] = DANGLING_NAME;
+                if (scope == NONEMPTY_OBJECT) {
+                    int c = readNonWhitespace();
+                    if (c == '}') return peeked = PEEKED_END_OBJECT;
+                    if (c != ',') throw syntaxError("Unterminated object");
+                }
+                int c = readNonWhitespace();
+                if (c == '"') return peeked = PEEKED_NAME;
+                if (c == '}' && scope == EMPTY_OBJECT) return peeked = PEEKED_END_OBJECT;
+                throw syntaxError("Expected name");
+            }
+            case DANGLING_NAME -> {
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (readNonWhitespace() != ':') throw syntaxError("Expected ':'");
+            }
+            case EMPTY_DOCUMENT -> stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+            case NONEMPTY_DOCUMENT -> {
+                if (peekNonWhitespace() == -1) return peeked = PEEKED_EOF;
+                throw syntaxError("Expected end of document");
+            }
+            default -> throw new IllegalStateException("JSON reader is closed");
+        }
+
+        int c = peekNonWhitespace();
+        switch (c) {
+            case -1 -> throw new EOFException("End of input");
+            case ']' -> {
+                // Only an empty array may end where a value is expected
+                if (scope != EMPTY_ARRAY) throw syntaxError("Expected a value");
+                buffer.skip(1);
+                return peeked = PEEKED_END_ARRAY;
+            }
+            case '{' -> {
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_OBJECT;
+            }
+            case '[' -> {
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_ARRAY;
+            }
+            case '"' -> {
+                buffer.skip(1);
+                return peeked = PEEKED_STRING;
+            }
+            case 't' -> {
+                return peeked = peekKeyword("true", PEEKED_TRUE);
+            }
+            case 'f' -> {
+                return peeked = peekKeyword("false", PEEKED_FALSE);
+            }
+            case 'n' -> {
+                return peeked = peekKeyword("null", PEEKED_NULL);
+            }
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) return peeked = peekNumber();
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+            }
+        }
+    }
+
+    private int peekKeyword(String keyword, int token) throws IOException {
+        for (int i = 1; i < keyword.length(); i++) {
+            if (!source.request(i + 1) || buffer.getByte(i) != keyword.charAt(i)) {
+                throw syntaxError("Expected " + keyword);
+            }
+        }
+        buffer.skip(keyword.length());
+        return token;
+    }
+
+    /**
+     * Scans the number at the head of the buffer. Integers short enough to fit in a long are parsed and
+     * consumed right away; other numbers are left in the buffer for {@link #numberOrString}.
+     */
+    private int peekNumber() throws IOException {
+        boolean negative = buffer.getByte(0) == '-';
+        boolean integral = true;
+        long value = 0;
+        int digits = 0;
+        int length = negative ? 1 : 0;
+        for (; source.request(length + 1); length++) {
+            byte c = buffer.getByte(length);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+') {
+                integral = false;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) throw syntaxError("Malformed number");
+        if (integral && digits <= MAX_FAST_DIGITS) {
+            buffer.skip(length);
+            peekedLong = negative ? -value : value;
+            return PEEKED_LONG;
+        }
+        peekedNumberLength = length;
+        return PEEKED_NUMBER;
+    }
+
+    private String numberOrString(int p, String expected) throws IOException {
+        if (p == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            return buffer.readUtf8(peekedNumberLength);
+        }
+        if (p == PEEKED_STRING) {
+            peeked = PEEKED_NONE;
+            return readString();
+        }
+        throw unexpected(expected);
+    }
+
+    private double parseDouble(String literal, String expected) throws MalformedJsonException {
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected " + expected + " but was " + literal);
+        }
+    }
+
+    /**
+     * Reads the rest of a string whose opening quote was consumed, decoding only its own bytes.
+     */
+    private String readString() throws IOException {
+        StringBuilder escaped = null;
+        while (true) {
+            long index = source.indexOfElement(STRING_SPECIAL);
+            if (index == -1) throw syntaxError("Unterminated string");
+            byte c = buffer.getByte(index);
+            String chunk = buffer.readUtf8(index);
+            buffer.skip(1);
+            if (c == '"') return escaped == null ? chunk : escaped.append(chunk).toString();
+            if (escaped == null) escaped = new StringBuilder();
+            escaped.append(chunk).append(readEscapedChar());
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            long index = source.indexOfElement(STRING_SPECIAL);
+            if (index == -1) throw syntaxError("Unterminated string");
+            byte c = buffer.getByte(index);
+            buffer.skip(index + 1);
+            if (c == '"') return;
+            // The escaped character; the hex digits of a \\u escape contain no quote or backslash
+            if (!source.request(1)) throw syntaxError("Unterminated escape sequence");
+            buffer.skip(1);
+        }
+    }
+
+    private char readEscapedChar() throws IOException {
+        if (!source.request(1)) throw syntaxError("Unterminated escape sequence");
+        byte c = buffer.readByte();
+        return switch (c) {
+            case 'u' -> {
+                if (!source.request(4)) throw syntaxError("Unterminated escape sequence");
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buffer.readByte(), 16);
+                    if (digit < 0) throw syntaxError("Invalid \\u escape sequence");
+                    value = value << 4 | digit;
+                }
+                yield (char) value;
+            }
+            case 't' -> '\t';
+            case 'b' -> '\b';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 'f' -> '\f';
+            case '"', '\\', '/' -> (char) c;
+            default -> throw syntaxError("Invalid escape sequence: \\" + (char) c);
+        };
+    }
+
+    /**
+     * @return the next non-whitespace byte without consuming it, or -1 at the end of the input
+     */
+    private int peekNonWhitespace() throws IOException {
+        while (source.request(1)) {
+            int c = buffer.getByte(0) & 0xFF;
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r') return c;
+            buffer.skip(1);
+        }
+        return -1;
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == -1) throw new EOFException("End of input");
+        buffer.skip(1);
+        return c;
+    }
+
+    private void consume(int token, String expected) throws IOException {
+        if (peekInternal() != token) throw unexpected(expected);
+        peeked = PEEKED_NONE;
+    }
+
+    private void push(int scope) throws MalformedJsonException {
+        if (stackSize == MAX_DEPTH) throw syntaxError("Nesting too deep");
+        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = scope;
+    }
+
+    private MalformedJsonException unexpected(String expected) throws IOException {
+        return syntaxError("Expected " + expected + " but was " + peek());
+    }
+
+    private static MalformedJsonException syntaxError(String message) {
+        return new MalformedJsonException(message);
+    }
+}
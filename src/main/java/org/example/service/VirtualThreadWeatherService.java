@@ -0,0 +1,144 @@
+package org.example.service;
+
+import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
+import org.example.model.WeatherData;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * {@link WeatherSource} decorator that runs asynchronous fetches as blocking calls on virtual threads
+ * and bounds the number of upstream requests in flight.
+ * <p>
+ * Each asynchronous fetch gets its own virtual thread instead of a slot in OkHttp's dispatcher pool, so
+ * tens of thousands of lookups can wait for the API without a matching number of platform threads.
+ * Synchronous fetches run on the calling thread. Both take a permit of the same semaphore for the duration
+ * of the request; callers beyond the limit wait for a permit. Cancelling a returned future interrupts its
+ * request.
+ * <p>
+ * Close the service when done with it: asynchronous fetches already started complete, later ones fail.
+ */
+public class VirtualThreadWeatherService implements WeatherSource, AutoCloseable {
+
+    private final WeatherSource delegate;
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("openweathermap-sdk-fetch-", 0).factory());
+
+    /**
+     * @param maxConcurrentRequests maximum number of requests in flight at once
+     */
+    public VirtualThreadWeatherService(WeatherSource delegate, int maxConcurrentRequests) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    @Override
+    public WeatherData fetchWeather(String city) throws SDKException {
+        return bounded(() -> delegate.fetchWeather(city));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherAsync(String city) {
+        return onVirtualThread(() -> delegate.fetchWeather(city));
+    }
+
+    @Override
+    public WeatherData fetchWeatherById(long cityId) throws SDKException {
+        return bounded(() -> delegate.fetchWeatherById(cityId));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByIdAsync(long cityId) {
+        return onVirtualThread(() -> delegate.fetchWeatherById(cityId));
+    }
+
+    @Override
+    public WeatherData fetchWeatherByCoordinates(double lat, double lon) throws SDKException {
+        return bounded(() -> delegate.fetchWeatherByCoordinates(lat, lon));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByCoordinatesAsync(double lat, double lon) {
+        return onVirtualThread(() -> delegate.fetchWeatherByCoordinates(lat, lon));
+    }
+
+    @Override
+    public List<WeatherData> fetchGroup(Collection<Long> cityIds) throws SDKException {
+        return bounded(() -> delegate.fetchGroup(cityIds));
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> fetchGroupAsync(Collection<Long> cityIds) {
+        return onVirtualThread(() -> delegate.fetchGroup(cityIds));
+    }
+
+    @Override
+    public ForecastSeries fetchForecast(String city) throws SDKException {
+        return bounded(() -> delegate.fetchForecast(city));
+    }
+
+    @Override
+    public ForecastSeries fetchForecastById(long cityId) throws SDKException {
+        return bounded(() -> delegate.fetchForecastById(cityId));
+    }
+
+    @Override
+    public ForecastSeries fetchForecastByCoordinates(double lat, double lon) throws SDKException {
+        return bounded(() -> delegate.fetchForecastByCoordinates(lat, lon));
+    }
+
+    /**
+     * Number of requests that can start right now without waiting.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T bounded(Supplier<T> call) throws SDKException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SDKException("Interrupted while waiting to send a request to the OpenWeatherMap API", e);
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> CompletableFuture<T> onVirtualThread(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(bounded(call));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new SDKException("Weather service is closed.", e));
+            return result;
+        }
+        result.whenComplete((data, error) -> {
+            if (result.isCancelled()) task.cancel(true);
+        });
+        return result;
+    }
+}
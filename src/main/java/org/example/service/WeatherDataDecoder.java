@@ -0,0 +1,162 @@
+package org.example.service;
+
+import com.google.gson.stream.JsonToken;
+import okio.BufferedSource;
+import org.example.model.WeatherData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for the OpenWeatherMap current weather response.
+ * <p>
+ * Fills {@link WeatherData} directly from the UTF-8 bytes of the response via {@link Utf8JsonReader}: no
+ * reflection-based binding, no intermediate tree, no char decoding of the whole payload, and fields the
+ * SDK does not expose (coord, base, clouds, ...) are skipped without being materialized.
+ */
+public final class WeatherDataDecoder {
+
+    private WeatherDataDecoder() {}
+
+    /**
+     * Decodes a single current weather object.
+     *
+     * @throws IOException if the payload is not valid JSON or cannot be read
+     */
+    public static WeatherData decode(BufferedSource json) throws IOException {
+        try (Utf8JsonReader reader = new Utf8JsonReader(json)) {
+            return readWeatherData(reader);
+        }
+    }
+
+    /**
+     * Decodes a group response ({@code {"cnt": n, "list": [...]}}), streaming each element of the list
+     * into its own {@link WeatherData}.
+     *
+     * @throws IOException if the payload is not valid JSON or cannot be read
+     */
+    public static List<WeatherData> decodeGroup(BufferedSource json) throws IOException {
+        List<WeatherData> list = new ArrayList<>();
+        try (Utf8JsonReader reader = new Utf8JsonReader(json)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (skipNull(reader)) continue;
+                if (field.equals("list")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        list.add(readWeatherData(reader));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return list;
+    }
+
+    static WeatherData readWeatherData(Utf8JsonReader reader) throws IOException {
+        WeatherData data = new WeatherData();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            switch (field) {
+                case "weather" -> data.setWeatherList(readWeatherList(reader));
+                case "main" -> data.setTemperature(readTemperature(reader));
+                case "visibility" -> data.setVisibility(reader.nextInt());
+                case "wind" -> data.setWind(readWind(reader));
+                case "dt" -> data.setDatetime(reader.nextLong());
+                case "sys" -> data.setSys(readSys(reader));
+                case "timezone" -> data.setTimezone(reader.nextInt());
+                case "id" -> data.setCityId(reader.nextLong());
+                case "name" -> data.setName(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return data;
+    }
+
+    private static List<WeatherData.WeatherInfo> readWeatherList(Utf8JsonReader reader) throws IOException {
+        List<WeatherData.WeatherInfo> list = new ArrayList<>(1); // OpenWeatherMap almost always sends one condition
+        reader.beginArray();
+        while (reader.hasNext()) {
+            WeatherData.WeatherInfo info = new WeatherData.WeatherInfo();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (skipNull(reader)) continue;
+                switch (field) {
+                    case "main" -> info.setMain(reader.nextString());
+                    case "description" -> info.setDescription(reader.nextString());
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            list.add(info);
+        }
+        reader.endArray();
+        return list;
+    }
+
+    private static WeatherData.TemperatureInfo readTemperature(Utf8JsonReader reader) throws IOException {
+        WeatherData.TemperatureInfo temperature = new WeatherData.TemperatureInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            switch (field) {
+                case "temp" -> temperature.setTemp(reader.nextDouble());
+                case "feels_like" -> temperature.setFeelsLike(reader.nextDouble());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return temperature;
+    }
+
+    private static WeatherData.WindInfo readWind(Utf8JsonReader reader) throws IOException {
+        WeatherData.WindInfo wind = new WeatherData.WindInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            if (field.equals("speed")) {
+                wind.setSpeed(reader.nextDouble());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return wind;
+    }
+
+    private static WeatherData.SysInfo readSys(Utf8JsonReader reader) throws IOException {
+        WeatherData.SysInfo sys = new WeatherData.SysInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) continue;
+            switch (field) {
+                case "sunrise" -> sys.setSunrise(reader.nextLong());
+                case "sunset" -> sys.setSunset(reader.nextLong());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return sys;
+    }
+
+    /**
+     * Consumes a JSON null, leaving the field at its default like Gson's binding does.
+     */
+    private static boolean skipNull(Utf8JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NULL) return false;
+        reader.nextNull();
+        return true;
+    }
+}
@@ -1,58 +1,353 @@
 package org.example.service;
 
+import org.example.error.ApiResponseException;
 import org.example.error.SDKException;
+import org.example.metrics.SDKMetrics;
+import org.example.model.ForecastSeries;
 import org.example.model.WeatherData;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import com.google.gson.Gson;
+import okio.Buffer;
+import okio.BufferedSource;
+import com.google.gson.stream.MalformedJsonException;
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class WeatherService {
+public class WeatherService implements WeatherSource {
 
-    private static final String API_BASE_URL = "https://api.openweathermap.org/data/2.5/weather?q=%s&appid=%s";
+    public static final String API_BASE_URL = "https://api.openweathermap.org/data/2.5/weather";
+    /** Maximum number of city IDs the group endpoint accepts in one request. */
+    public static final int MAX_GROUP_SIZE = 20;
+    private static final String GROUP_ENDPOINT = "group";
+    private static final String FORECAST_ENDPOINT = "forecast";
     private final OkHttpClient httpClient;
-    private final Gson gson;
-    private final String apiKey;
+    private final SDKMetrics metrics;
+    // Endpoint URLs with the API key already encoded; each request only adds its own query parameter
+    private final HttpUrl weatherUrl;
+    private final HttpUrl groupUrl;
+    private final HttpUrl forecastUrl;
 
+    /**
+     * @return the API key reduced to its last four characters, safe to log
+     */
+    public static String maskApiKey(String apiKey) {
+        return apiKey == null || apiKey.length() <= 4 ? "****" : "****" + apiKey.substring(apiKey.length() - 4);
+    }
+
+    /**
+     * Creates a service on the process-wide {@link HttpTransport#shared()} transport.
+     */
     public WeatherService(String apiKey) {
-        this.apiKey = apiKey;
-        this.httpClient = new OkHttpClient();
-        this.gson = new Gson();
+        this(apiKey, HttpTransport.shared().client());
+    }
+
+    /**
+     * @param httpClient preconfigured client (timeouts etc.) used for all requests of this service
+     */
+    public WeatherService(String apiKey, OkHttpClient httpClient) {
+        this(apiKey, httpClient, API_BASE_URL);
+    }
+
+    /**
+     * @param baseUrl URL of the current weather endpoint, e.g. a local stand-in server for tests and benchmarks
+     */
+    public WeatherService(String apiKey, OkHttpClient httpClient, String baseUrl) {
+        this(apiKey, httpClient, baseUrl, SDKMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives latency and HTTP status of every upstream call
+     */
+    public WeatherService(String apiKey, OkHttpClient httpClient, String baseUrl, SDKMetrics metrics) {
+        this.httpClient = httpClient;
+        this.metrics = metrics;
+        if (baseUrl == null) throw new SDKException("OpenWeatherMap API URL cannot be null.");
+        HttpUrl url;
+        try {
+            url = HttpUrl.get(baseUrl);
+        } catch (IllegalArgumentException e) {
+            throw new SDKException("Invalid OpenWeatherMap API URL: " + baseUrl, e);
+        }
+        this.weatherUrl = withApiKey(url, apiKey);
+        this.groupUrl = withApiKey(url.resolve(GROUP_ENDPOINT), apiKey);
+        this.forecastUrl = withApiKey(url.resolve(FORECAST_ENDPOINT), apiKey);
     }
 
     /**
      * Makes a synchronous request to the OpenWeatherMap API.
      * @throws SDKException if the request fails or the data cannot be retrieved
      */
+    @Override
     public WeatherData fetchWeather(String city) throws SDKException {
-        String encodedCity;
+        return fetch(Endpoint.WEATHER, cityQuery(city), city, WeatherDataDecoder::decode);
+    }
+
+    /**
+     * Makes a non-blocking request to the OpenWeatherMap API on OkHttp's dispatcher.
+     * <p>
+     * The returned future fails with {@link SDKException} in the same cases where {@link #fetchWeather(String)}
+     * throws. Cancelling the future cancels the underlying HTTP call.
+     */
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherAsync(String city) {
+        Query query;
         try {
-            encodedCity = URLEncoder.encode(city, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            throw new SDKException("Failed to encode the city name: " + city, e);
+            query = cityQuery(city);
+        } catch (SDKException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return fetchAsync(Endpoint.WEATHER, query, city, WeatherDataDecoder::decode);
+    }
 
-        Request request = new Request.Builder()
-                .url(String.format(API_BASE_URL, encodedCity, apiKey))
-                .build();
+    /**
+     * Makes a synchronous request for a city by its OpenWeatherMap ID, which unlike a name is unambiguous
+     * and needs no resolution upstream.
+     * @throws SDKException if the request fails or the data cannot be retrieved
+     */
+    @Override
+    public WeatherData fetchWeatherById(long cityId) throws SDKException {
+        return fetch(Endpoint.WEATHER, idQuery(cityId), "city ID " + cityId, WeatherDataDecoder::decode);
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchWeatherById(long)}.
+     */
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByIdAsync(long cityId) {
+        return fetchAsync(Endpoint.WEATHER, idQuery(cityId), "city ID " + cityId, WeatherDataDecoder::decode);
+    }
+
+    /**
+     * Makes a synchronous request for the weather at the given point.
+     * @throws SDKException if the request fails or the data cannot be retrieved
+     */
+    @Override
+    public WeatherData fetchWeatherByCoordinates(double lat, double lon) throws SDKException {
+        return fetch(Endpoint.WEATHER, coordinatesQuery(lat, lon), "coordinates " + lat + "," + lon,
+                WeatherDataDecoder::decode);
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchWeatherByCoordinates(double, double)}.
+     */
+    @Override
+    public CompletableFuture<WeatherData> fetchWeatherByCoordinatesAsync(double lat, double lon) {
+        return fetchAsync(Endpoint.WEATHER, coordinatesQuery(lat, lon), "coordinates " + lat + "," + lon,
+                WeatherDataDecoder::decode);
+    }
+
+    /**
+     * Makes a synchronous request for up to {@link #MAX_GROUP_SIZE} cities by ID in a single call to the
+     * group endpoint, which sits next to the current weather endpoint.
+     *
+     * @return weather of the cities found, in no particular order; match them via {@link WeatherData#getCityId()}
+     * @throws SDKException if the request fails or the data cannot be retrieved
+     */
+    @Override
+    public List<WeatherData> fetchGroup(Collection<Long> cityIds) throws SDKException {
+        return fetch(Endpoint.GROUP, groupQuery(cityIds), "city IDs " + cityIds, WeatherDataDecoder::decodeGroup);
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchGroup(Collection)}.
+     */
+    @Override
+    public CompletableFuture<List<WeatherData>> fetchGroupAsync(Collection<Long> cityIds) {
+        Query query;
+        try {
+            query = groupQuery(cityIds);
+        } catch (SDKException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return fetchAsync(Endpoint.GROUP, query, "city IDs " + cityIds, WeatherDataDecoder::decodeGroup);
+    }
+
+    /**
+     * Makes a synchronous request for the 5-day/3-hour forecast of a city, from the forecast endpoint next to
+     * the current weather endpoint.
+     * @throws SDKException if the request fails or the data cannot be retrieved
+     */
+    @Override
+    public ForecastSeries fetchForecast(String city) throws SDKException {
+        return fetch(Endpoint.FORECAST, cityQuery(city), "forecast for " + city, ForecastDecoder::decode);
+    }
+
+    /**
+     * Forecast counterpart of {@link #fetchWeatherById(long)}.
+     */
+    @Override
+    public ForecastSeries fetchForecastById(long cityId) throws SDKException {
+        return fetch(Endpoint.FORECAST, idQuery(cityId), "forecast for city ID " + cityId, ForecastDecoder::decode);
+    }
 
+    /**
+     * Forecast counterpart of {@link #fetchWeatherByCoordinates(double, double)}.
+     */
+    @Override
+    public ForecastSeries fetchForecastByCoordinates(double lat, double lon) throws SDKException {
+        return fetch(Endpoint.FORECAST, coordinatesQuery(lat, lon), "forecast for coordinates " + lat + "," + lon,
+                ForecastDecoder::decode);
+    }
+
+    /**
+     * Decodes a successful response body from its raw bytes.
+     */
+    @FunctionalInterface
+    protected interface ResponseDecoder<T> {
+        T decode(BufferedSource body) throws IOException;
+    }
+
+    /**
+     * Endpoints of the API version the base URL points to.
+     */
+    protected enum Endpoint {
+        /** The current weather endpoint, i.e. the base URL itself. */
+        WEATHER,
+        /** The group endpoint next to it, e.g. {@code .../2.5/group} next to {@code .../2.5/weather}. */
+        GROUP,
+        /** The 5-day/3-hour forecast endpoint next to it. */
+        FORECAST
+    }
+
+    /**
+     * Adds the parameters of one request, other than the API key, to the endpoint URL.
+     */
+    @FunctionalInterface
+    protected interface Query {
+        void addTo(HttpUrl.Builder url);
+    }
+
+    /**
+     * Executes one request with this service's API key.
+     *
+     * @param subject what is being requested, used in error messages
+     */
+    protected <T> T fetch(Endpoint endpoint, Query query, String subject, ResponseDecoder<T> decoder)
+            throws SDKException {
+        Request request = buildRequest(endpoint, query);
+
+        long start = System.nanoTime();
         try (Response response = httpClient.newCall(request).execute()){
+            metrics.upstreamRequest(System.nanoTime() - start, response.code());
+            return readResponse(response, subject, decoder);
+        } catch (IOException e) {
+            metrics.upstreamRequest(System.nanoTime() - start, 0);
+            throw new SDKException("Network error when accessing the OpenWeatherMap API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #fetch(Endpoint, Query, String, ResponseDecoder)}.
+     */
+    protected <T> CompletableFuture<T> fetchAsync(Endpoint endpoint, Query query, String subject,
+                                                  ResponseDecoder<T> decoder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call = httpClient.newCall(buildRequest(endpoint, query));
+        long start = System.nanoTime();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.upstreamRequest(System.nanoTime() - start, 0);
+                future.completeExceptionally(new SDKException(
+                        "Network error when accessing the OpenWeatherMap API: " + e.getMessage(), e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                metrics.upstreamRequest(System.nanoTime() - start, response.code());
+                try (response) {
+                    future.complete(readResponse(response, subject, decoder));
+                } catch (SDKException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        future.whenComplete((data, error) -> {
+            if (future.isCancelled()) call.cancel();
+        });
+        return future;
+    }
+
+    private static HttpUrl withApiKey(HttpUrl endpoint, String apiKey) {
+        HttpUrl.Builder url = endpoint.newBuilder();
+        if (apiKey != null) url.addQueryParameter("appid", apiKey);
+        return url.build();
+    }
+
+    private static Query cityQuery(String city) throws SDKException {
+        if (city == null) throw new SDKException("City name cannot be null.");
+        return url -> url.addQueryParameter("q", city);
+    }
+
+    private static Query idQuery(long cityId) {
+        return url -> url.addEncodedQueryParameter("id", Long.toString(cityId));
+    }
+
+    private static Query coordinatesQuery(double lat, double lon) {
+        return url -> url.addEncodedQueryParameter("lat", Double.toString(lat))
+                .addEncodedQueryParameter("lon", Double.toString(lon));
+    }
+
+    private static Query groupQuery(Collection<Long> cityIds) throws SDKException {
+        if (cityIds.isEmpty() || cityIds.size() > MAX_GROUP_SIZE) {
+            throw new SDKException("A group request takes 1 to " + MAX_GROUP_SIZE + " city IDs: " + cityIds.size());
+        }
+        StringBuilder ids = new StringBuilder();
+        for (Long cityId : cityIds) {
+            if (!ids.isEmpty()) ids.append(',');
+            ids.append(cityId);
+        }
+        // Digits and commas need no escaping, and the API expects the commas verbatim
+        String value = ids.toString();
+        return url -> url.addEncodedQueryParameter("id", value);
+    }
+
+    private Request buildRequest(Endpoint endpoint, Query query) {
+        HttpUrl template = switch (endpoint) {
+            case WEATHER -> weatherUrl;
+            case GROUP -> groupUrl;
+            case FORECAST -> forecastUrl;
+        };
+        HttpUrl.Builder url = template.newBuilder();
+        query.addTo(url);
+        return new Request.Builder()
+                .url(url.build())
+                .build();
+    }
+
+    private static <T> T readResponse(Response response, String subject, ResponseDecoder<T> decoder)
+            throws SDKException {
+        try {
             if (!response.isSuccessful()) {
                 // Handling errors from API (401 Unauthorized, 404 Not Found etc.)
-                String responseBody = response.body().string();
-                throw new SDKException(
-                        String.format("Error API (HTTP %d) in request for %s. Response: %s",
-                                response.code(), city, responseBody)
-                );
+                throw readError(response, subject);
             }
-            return gson.fromJson(response.body().charStream(), WeatherData.class);
+            return decoder.decode(response.body().source());
+        } catch (SDKException e) {
+            throw e;
+        } catch (MalformedJsonException e) {
+            throw new SDKException("Unexpected error while processing the API response: " + e.getMessage(), e);
         } catch (IOException e) {
             throw new SDKException("Network error when accessing the OpenWeatherMap API: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new SDKException("Unexpected error while processing the API response: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Reads no more of the error body than the exception keeps; the rest is discarded with the response.
+     */
+    private static ApiResponseException readError(Response response, String subject) throws IOException {
+        BufferedSource source = response.body().source();
+        boolean truncated = source.request(ApiResponseException.MAX_BODY_BYTES + 1);
+        Buffer buffer = source.getBuffer();
+        long length = Math.min(buffer.size(), ApiResponseException.MAX_BODY_BYTES);
+        return new ApiResponseException(response.code(), subject, buffer.readByteString(length), truncated);
+    }
 }
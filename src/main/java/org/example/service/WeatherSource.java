@@ -0,0 +1,44 @@
+package org.example.service;
+
+import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
+import org.example.model.WeatherData;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Upstream fetch operations of the SDK, implemented over HTTP by {@link WeatherService}.
+ * <p>
+ * Decorators such as {@link CircuitBreakingWeatherService} implement this interface around another source,
+ * so that a new operation does not compile until every decorator handles it. Asynchronous variants fail
+ * their future with {@link SDKException} in the same cases where the synchronous ones throw.
+ */
+public interface WeatherSource {
+
+    WeatherData fetchWeather(String city) throws SDKException;
+
+    CompletableFuture<WeatherData> fetchWeatherAsync(String city);
+
+    WeatherData fetchWeatherById(long cityId) throws SDKException;
+
+    CompletableFuture<WeatherData> fetchWeatherByIdAsync(long cityId);
+
+    WeatherData fetchWeatherByCoordinates(double lat, double lon) throws SDKException;
+
+    CompletableFuture<WeatherData> fetchWeatherByCoordinatesAsync(double lat, double lon);
+
+    /**
+     * @param cityIds up to {@link WeatherService#MAX_GROUP_SIZE} city IDs
+     * @return weather of the cities found, in no particular order; match them via {@link WeatherData#getCityId()}
+     */
+    List<WeatherData> fetchGroup(Collection<Long> cityIds) throws SDKException;
+
+    CompletableFuture<List<WeatherData>> fetchGroupAsync(Collection<Long> cityIds);
+
+    ForecastSeries fetchForecast(String city) throws SDKException;
+
+    ForecastSeries fetchForecastById(long cityId) throws SDKException;
+
+    ForecastSeries fetchForecastByCoordinates(double lat, double lon) throws SDKException;
+}
@@ -0,0 +1,113 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAndLoad_ShouldRestoreEntriesWithReceiptTime() throws IOException {
+        Path file = dir.resolve("cache.bin");
+        WeatherCache cache = new WeatherCache();
+        WeatherData zoccaWeather = weather("Zocca", "scattered clouds");
+        zoccaWeather.setCityId(3163858);
+        cache.put("Zocca", zoccaWeather);
+        cache.put("Köln", weather("Köln", null));
+        long receiptTime = cache.getFresh("zocca").getReceiptTime();
+
+        assertEquals(2, CacheSnapshot.save(cache, file));
+        WeatherCache restored = new WeatherCache();
+        assertEquals(2, CacheSnapshot.load(restored, file, false));
+
+        CacheEntry zocca = restored.getFresh("zocca");
+        assertNotNull(zocca);
+        assertEquals(receiptTime, zocca.getReceiptTime());
+        assertEquals("Zocca", zocca.getData().getName());
+        assertEquals(3163858, zocca.getData().getCityId());
+        assertEquals("scattered clouds", zocca.getData().getWeather().getDescription());
+        assertEquals(269.6, zocca.getData().getTemperature().getTemp());
+        assertEquals("Köln", restored.getFresh("köln").getData().getName());
+        assertNull(restored.getFresh("köln").getData().getWeather().getDescription());
+    }
+
+    @Test
+    void load_ShouldSkipExpiredEntriesUnlessRequested() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        WeatherCache cache = new WeatherCache(10, Duration.ofMillis(50));
+        cache.put("Zocca", weather("Zocca", "clear sky"));
+        CacheSnapshot.save(cache, file);
+        Thread.sleep(100);
+
+        assertEquals(0, CacheSnapshot.load(new WeatherCache(10, Duration.ofMillis(50)), file, false));
+        WeatherCache seeded = new WeatherCache(10, Duration.ofMillis(50));
+        assertEquals(1, CacheSnapshot.load(seeded, file, true));
+        assertEquals(List.of("zocca"), List.copyOf(seeded.keySet()));
+    }
+
+    @Test
+    void concurrentSaves_ShouldNotCorruptSnapshot() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        WeatherCache cache = new WeatherCache();
+        cache.put("Zocca", weather("Zocca", "clear sky"));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                saves.add(pool.submit(() -> CacheSnapshot.save(cache, file)));
+            }
+            for (Future<?> save : saves) {
+                save.get(); // fails if a writer's temporary file was moved away by another
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, CacheSnapshot.load(new WeatherCache(), file, false));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void load_ShouldIgnoreMissingOrCorruptFile() throws IOException {
+        WeatherCache cache = new WeatherCache();
+        assertEquals(0, CacheSnapshot.load(cache, dir.resolve("missing.bin"), true));
+
+        Path corrupt = dir.resolve("corrupt.bin");
+        Files.write(corrupt, new byte[] {1, 2, 3});
+        assertEquals(0, CacheSnapshot.load(cache, corrupt, true));
+        assertEquals(0, cache.size());
+    }
+
+    private static WeatherData weather(String name, String description) {
+        WeatherData data = new WeatherData();
+        data.setName(name);
+        WeatherData.WeatherInfo info = new WeatherData.WeatherInfo();
+        info.setMain("Clouds");
+        info.setDescription(description);
+        data.setWeatherList(List.of(info));
+        WeatherData.TemperatureInfo temperature = new WeatherData.TemperatureInfo();
+        temperature.setTemp(269.6);
+        data.setTemperature(temperature);
+        return data;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileCacheTierTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void putAndGet_ShouldRoundTripEntry() throws IOException {
+        FileCacheTier tier = new FileCacheTier(dir.resolve("tier"));
+        WeatherData data = new WeatherData();
+        data.setName("São Paulo");
+        data.setCityId(3448439);
+
+        tier.put("são paulo", data, 1675744800000L);
+        CacheEntry entry = new FileCacheTier(dir.resolve("tier")).get("são paulo");
+
+        assertNotNull(entry);
+        assertEquals(1675744800000L, entry.getReceiptTime());
+        assertEquals("São Paulo", entry.getData().getName());
+        assertEquals(3448439, entry.getData().getCityId());
+        assertNull(tier.get("zocca"));
+    }
+
+    @Test
+    void put_ShouldReplaceEntryWithoutLeavingTemporaryFiles() throws IOException {
+        FileCacheTier tier = new FileCacheTier(dir);
+        tier.put("zocca", new WeatherData(), 1);
+        tier.put("zocca", new WeatherData(), 2);
+
+        assertEquals(2, tier.get("zocca").getReceiptTime());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void get_ShouldIgnoreCorruptEntry() throws IOException {
+        FileCacheTier tier = new FileCacheTier(dir);
+        tier.put("zocca", new WeatherData(), 1);
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) Files.write(file, new byte[] {1, 2, 3});
+        }
+
+        assertNull(tier.get("zocca"));
+    }
+}
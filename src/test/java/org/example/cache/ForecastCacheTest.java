@@ -0,0 +1,50 @@
+package org.example.cache;
+
+import org.example.model.ForecastSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ForecastCacheTest {
+
+    @Test
+    void get_ShouldIgnoreCaseOfCityName() {
+        ForecastCache cache = new ForecastCache(10, Duration.ofHours(3));
+        ForecastSeries series = ForecastSeries.builder().build();
+
+        cache.put("Zocca", series);
+
+        assertSame(series, cache.get("ZOCCA"));
+        assertNull(cache.get("london"));
+    }
+
+    @Test
+    void put_overCapacity_ShouldEvictCityNotReadSince() {
+        ForecastCache cache = new ForecastCache(2, Duration.ofHours(3));
+        cache.put("zocca", ForecastSeries.builder().build());
+        cache.put("london", ForecastSeries.builder().build());
+        cache.get("zocca");
+
+        cache.put("paris", ForecastSeries.builder().build());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("zocca"));
+        assertNull(cache.get("london"));
+        assertNotNull(cache.get("paris"));
+    }
+
+    @Test
+    void get_afterTtl_ShouldMiss() throws InterruptedException {
+        ForecastCache cache = new ForecastCache(10, Duration.ofMillis(20));
+        cache.put("zocca", ForecastSeries.builder().build());
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("zocca"));
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+
+    @Test
+    void frequency_ShouldNeverUnderestimate() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 1000; i++) {
+            for (int k = 0; k <= i % 10; k++) sketch.increment("city" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sketch.frequency("city" + i) >= i % 10 + 1, "city" + i);
+        }
+        assertEquals(0, sketch.frequency("atlantis"));
+    }
+
+    @Test
+    void age_ShouldHalveCounts() {
+        FrequencySketch sketch = new FrequencySketch(10);
+        for (int i = 0; i < 8; i++) sketch.increment("zocca");
+        sketch.increment("paris");
+
+        sketch.age();
+
+        assertEquals(4, sketch.frequency("zocca"));
+        assertEquals(0, sketch.frequency("paris"));
+    }
+
+    @Test
+    void increment_ShouldDecayOldCountsOverTime() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 100; i++) sketch.increment("zocca");
+        int before = sketch.frequency("zocca");
+
+        // Sample size is ten accesses per counter of a row
+        for (int i = 0; i < 10 * 16; i++) sketch.increment("paris" + (i % 8));
+
+        assertTrue(sketch.frequency("zocca") < before);
+    }
+}
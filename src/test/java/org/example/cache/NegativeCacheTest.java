@@ -0,0 +1,71 @@
+package org.example.cache;
+
+import org.example.error.SDKException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NegativeCacheTest {
+
+    private static final SDKException NOT_FOUND = new SDKException("Error API (HTTP 404) in request for Atlantis", 404);
+
+    @Test
+    void get_ShouldReplayCachedFailureCaseInsensitively() {
+        NegativeCache cache = new NegativeCache(10, Duration.ofMinutes(1));
+        cache.put("Atlantis", NOT_FOUND);
+
+        SDKException replayed = cache.get("ATLANTIS");
+
+        assertNotNull(replayed);
+        assertNotSame(NOT_FOUND, replayed);
+        assertEquals(NOT_FOUND.getMessage(), replayed.getMessage());
+        assertEquals(404, replayed.getStatusCode());
+    }
+
+    @Test
+    void put_transientFailure_ShouldNotBeCached() {
+        NegativeCache cache = new NegativeCache(10, Duration.ofMinutes(1));
+        cache.put("Zocca", new SDKException("Error API (HTTP 503)", 503));
+        cache.put("Zocca", new SDKException("Network error", new IOException("timeout")));
+
+        assertNull(cache.get("Zocca"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_expiredFailure_ShouldReturnNull() throws InterruptedException {
+        NegativeCache cache = new NegativeCache(10, Duration.ofMillis(20));
+        cache.put("Atlantis", NOT_FOUND);
+        Thread.sleep(50);
+
+        assertNull(cache.get("Atlantis"));
+    }
+
+    @Test
+    void put_overCapacity_ShouldDropOldestFailure() {
+        NegativeCache cache = new NegativeCache(3, Duration.ofMinutes(1));
+        for (int i = 0; i < 4; i++) {
+            cache.put("Nowhere" + i, NOT_FOUND);
+        }
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("nowhere0"));
+        assertNotNull(cache.get("nowhere3"));
+    }
+
+    @Test
+    void invalidate_ShouldForgetFailure() {
+        NegativeCache cache = new NegativeCache(10, Duration.ofMinutes(1));
+        cache.put("Atlantis", NOT_FOUND);
+        cache.invalidate("atlantis");
+
+        assertNull(cache.get("Atlantis"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.cache;
+
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherCacheTest {
+
+    private static final int THREADS = 8;
+    private static final int PUTS_PER_THREAD = 1_000;
+
+    @Test
+    void getFresh_ShouldBeCaseInsensitive() {
+        WeatherCache cache = new WeatherCache();
+        WeatherData data = new WeatherData();
+        cache.put("Zocca", data);
+
+        assertSame(data, cache.getFresh("ZOCCA").getData());
+    }
+
+    @Test
+    void eviction_ShouldSpareRecentlyReadEntry() {
+        WeatherCache cache = new WeatherCache();
+        for (int i = 0; i < 10; i++) {
+            cache.put("City" + i, new WeatherData());
+        }
+        cache.getFresh("city0");
+
+        cache.put("City10", new WeatherData());
+
+        assertEquals(10, cache.size());
+        assertNotNull(cache.getFresh("city0"));
+        assertNull(cache.getFresh("city1"));
+    }
+
+    @Test
+    void freshness_ShouldFollowRefreshAheadAndStaleWindows() throws InterruptedException {
+        WeatherCache cache = new WeatherCache(10, Duration.ofMillis(200), 0.25, Duration.ofMillis(200));
+        cache.put("Zocca", new WeatherData());
+        CacheEntry entry = cache.getEntry("zocca");
+
+        assertEquals(Freshness.FRESH, cache.freshness(entry));
+        Thread.sleep(100);
+        assertEquals(Freshness.REFRESH_DUE, cache.freshness(entry));
+        Thread.sleep(150);
+        assertEquals(Freshness.STALE, cache.freshness(entry));
+        assertNull(cache.getFresh("zocca"));
+        Thread.sleep(200);
+        assertEquals(Freshness.EXPIRED, cache.freshness(entry));
+        assertEquals(Freshness.EXPIRED, cache.freshness(null));
+    }
+
+    @Test
+    void compactStorage_ShouldRoundTripWeatherData() {
+        WeatherCache cache = WeatherCache.builder().compactStorage(true).build();
+        WeatherData data = new WeatherData();
+        WeatherData.WeatherInfo clouds = new WeatherData.WeatherInfo();
+        clouds.setMain("Clouds");
+        clouds.setDescription(new String("scattered clouds"));
+        data.setWeatherList(List.of(clouds));
+        WeatherData.TemperatureInfo temperature = new WeatherData.TemperatureInfo();
+        temperature.setTemp(269.6);
+        temperature.setFeelsLike(267.57);
+        data.setTemperature(temperature);
+        data.setVisibility(10000);
+        data.setDatetime(1675744800L);
+        data.setTimezone(3600);
+        data.setName("Zocca");
+        cache.put("Zocca", data);
+        cache.put("Modena", data);
+
+        WeatherData zocca = cache.getFresh("zocca").getData();
+        WeatherData modena = cache.getFresh("modena").getData();
+
+        assertEquals("Clouds", zocca.getWeather().getMain());
+        assertEquals("scattered clouds", zocca.getWeather().getDescription());
+        assertSame(zocca.getWeather().getDescription(), modena.getWeather().getDescription());
+        assertEquals(269.6, zocca.getTemperature().getTemp());
+        assertEquals(267.57, zocca.getTemperature().getFeelsLike());
+        assertEquals(10000, zocca.getVisibility());
+        assertEquals(1675744800L, zocca.getDatetime());
+        assertEquals(3600, zocca.getTimezone());
+        assertEquals("Zocca", zocca.getName());
+        assertNull(zocca.getWind());
+        assertNull(zocca.getSys());
+    }
+
+    @Test
+    void remoteTier_ShouldShareEntriesWithTheirReceiptTime() throws InterruptedException {
+        InMemoryCacheTier tier = new InMemoryCacheTier();
+        WeatherCache first = WeatherCache.builder().remoteTier(tier).build();
+        WeatherCache second = WeatherCache.builder().remoteTier(tier).build();
+        WeatherData data = new WeatherData();
+        data.setName("Zocca");
+
+        first.put("Zocca", data);
+        CacheEntry shared = second.getFresh("zocca");
+
+        assertNotNull(shared);
+        assertEquals("Zocca", shared.getData().getName());
+        assertEquals(first.getFresh("zocca").getReceiptTime(), shared.getReceiptTime());
+        assertEquals(1, second.size());
+        assertNull(second.getRemoteEntry("zocca", 0)); // already adopted
+        Thread.sleep(5);
+        first.put("Zocca", data);
+        assertNull(second.getRemoteEntry("zocca", System.currentTimeMillis() + 1000));
+        assertNotNull(second.getRemoteEntry("zocca", 0));
+    }
+
+    @Test
+    void remoteTier_ShouldOnlyBeReadForMissingOrExpiredEntries() throws InterruptedException {
+        AtomicInteger remoteReads = new AtomicInteger();
+        InMemoryCacheTier tier = new InMemoryCacheTier() {
+            @Override
+            public CacheEntry get(String key) {
+                remoteReads.incrementAndGet();
+                return super.get(key);
+            }
+        };
+        WeatherCache cache = WeatherCache.builder()
+                .maxAge(Duration.ofMillis(200))
+                .refreshAheadFactor(0.1)
+                .remoteTier(tier)
+                .build();
+
+        assertNull(cache.getEntry("zocca"));
+        assertEquals(1, remoteReads.get());
+
+        cache.put("Zocca", new WeatherData());
+        Thread.sleep(40);
+        assertEquals(Freshness.REFRESH_DUE, cache.freshness(cache.getEntry("zocca")));
+        assertEquals(1, remoteReads.get());
+    }
+
+    @Test
+    void concurrentPuts_ShouldStayBounded() throws Exception {
+        WeatherCache cache = new WeatherCache();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < PUTS_PER_THREAD; i++) {
+                        String city = "City" + (thread * PUTS_PER_THREAD + i);
+                        cache.put(city, new WeatherData());
+                        cache.getFresh(city);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 10, "Cache exceeded its capacity: " + cache.size());
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.geo;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CityIndexTest {
+
+    private static CityIndex index;
+
+    @BeforeAll
+    static void loadIndex() throws IOException {
+        try (Reader json = new InputStreamReader(
+                CityIndexTest.class.getResourceAsStream("/city-list-sample.json"), StandardCharsets.UTF_8)) {
+            index = CityIndex.read(json);
+        }
+    }
+
+    @Test
+    void read_ShouldIndexAllCities() {
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void findByName_ShouldIgnoreCaseAndPreferFirstListedCity() {
+        assertEquals(2643743, index.findByName(" london ").getId());
+        assertEquals(6058560, index.findByName("London,ca").getId());
+        assertEquals(3163858, index.findByName("ZOCCA").getId());
+    }
+
+    @Test
+    void findByName_unknownCityOrCountry_ShouldReturnNull() {
+        assertNull(index.findByName("Atlantis"));
+        assertNull(index.findByName("London,US"));
+    }
+
+    @Test
+    void nearest_ShouldReturnClosestCityWithinRadius() {
+        assertEquals(2643743, index.nearest(51.51, -0.13, 10).getId());
+        assertNull(index.nearest(52.5, -0.13, 10));
+    }
+
+    @Test
+    void nearest_ShouldSearchAcrossAntimeridian() {
+        assertEquals(4032402, index.nearest(-18.19, 179.99, 10).getId());
+    }
+
+    @Test
+    void of_ShouldBuildIndexFromCities() {
+        CityIndex small = CityIndex.of(List.of(new City(1, "Alpha", "AA", 10, 10), new City(2, "Beta", "BB", 10.05, 10.05)));
+
+        assertEquals(2, small.nearest(10.04, 10.04, 50).getId());
+        assertEquals(1, small.findByName("alpha").getId());
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.cache.WeatherCache;
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MicrometerSDKMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerSDKMetrics metrics = new MicrometerSDKMetrics(registry);
+
+    @Test
+    void cacheLookups_ShouldBeCountedByResult() {
+        WeatherCache cache = WeatherCache.builder().maxSize(1).metrics(metrics).build();
+        cache.put("Zocca", new WeatherData());
+
+        cache.lookup("zocca");
+        cache.lookup("london");
+        cache.put("London", new WeatherData());
+
+        assertEquals(1.0, lookups("hit"));
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(1.0, registry.get("openweathermap.sdk.cache.evictions").counter().count());
+    }
+
+    @Test
+    void upstreamRequests_ShouldRecordLatencyAndErrorsByStatus() {
+        metrics.upstreamRequest(TimeUnit.MILLISECONDS.toNanos(20), 200);
+        metrics.upstreamRequest(TimeUnit.MILLISECONDS.toNanos(30), 404);
+        metrics.upstreamRequest(TimeUnit.MILLISECONDS.toNanos(40), 404);
+        metrics.upstreamRequest(TimeUnit.MILLISECONDS.toNanos(50), 0);
+
+        assertEquals(4, registry.get("openweathermap.sdk.upstream.latency").timer().count());
+        assertEquals(2.0, registry.get("openweathermap.sdk.upstream.errors").tag("status", "404").counter().count());
+        assertEquals(1.0, registry.get("openweathermap.sdk.upstream.errors").tag("status", "0").counter().count());
+    }
+
+    @Test
+    void polling_ShouldRecordCycleAndBacklog() {
+        metrics.pollingBacklog(7);
+        metrics.pollingCycle(TimeUnit.SECONDS.toNanos(3));
+
+        assertEquals(7.0, registry.get("openweathermap.sdk.polling.backlog").gauge().value());
+        assertEquals(1, registry.get("openweathermap.sdk.polling.cycle").timer().count());
+    }
+
+    private double lookups(String result) {
+        return registry.get("openweathermap.sdk.cache.lookups").tag("result", result).counter().count();
+    }
+}
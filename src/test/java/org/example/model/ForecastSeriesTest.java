@@ -0,0 +1,51 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForecastSeriesTest {
+
+    private static final long START = 1_700_000_000L;
+    private static final long STEP = 3 * 3600;
+
+    @Test
+    void rangeQueries_ShouldOnlyConsiderPointsInRange() {
+        ForecastSeries.Builder builder = ForecastSeries.builder().city(3163858, "Zocca", 3600);
+        for (int i = 0; i < 50; i++) {
+            builder.addPoint(START + i * STEP, 270 + i, 268 + i, 80, 1.5, i / 100.0, "Clouds", "scattered clouds");
+        }
+        ForecastSeries series = builder.build();
+
+        assertEquals(50, series.size());
+        long from = START + STEP; // points 1 to 8: the next 24 hours after the first point
+        long to = from + 8 * STEP;
+        assertEquals(271, series.minTemperature(from, to));
+        assertEquals(278, series.maxTemperature(from, to));
+        assertEquals(274.5, series.averageTemperature(from, to));
+        assertEquals(0.08, series.maxPrecipitationProbability(from, to));
+        assertTrue(Double.isNaN(series.maxTemperature(START + 60 * STEP, START + 70 * STEP)));
+        assertEquals(2, series.indexAtOrAfter(START + STEP + 1));
+        assertEquals(50, series.indexAtOrAfter(START + 50 * STEP));
+        assertSame(series.getConditionMain(0), series.getConditionMain(49));
+    }
+
+    @Test
+    void build_ShouldSortPointsByTime() {
+        ForecastSeries series = ForecastSeries.builder()
+                .addPoint(START + 2 * STEP, 3, 0, 0, 0, 0, "Rain", "light rain")
+                .addPoint(START, 1, 0, 0, 0, 0, null, null)
+                .addPoint(START + STEP, 2, 0, 0, 0, 0, "Clear", "clear sky")
+                .build();
+
+        assertEquals(START, series.getTime(0));
+        assertEquals(1, series.getTemperature(0));
+        assertNull(series.getConditionMain(0));
+        assertEquals("clear sky", series.getConditionDescription(1));
+        assertEquals("Rain", series.getConditionMain(2));
+        assertEquals(START + 2 * STEP, series.getLastTime());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.sdk;
+
+import org.example.cache.CacheEntry;
+import org.example.cache.FrequencySketch;
+import org.example.cache.WeatherCache;
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptivePollingPlanTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK_MS = 100;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private final WeatherCache cache = mock(WeatherCache.class);
+    private final FrequencySketch accessFrequency = new FrequencySketch(16);
+    private AdaptivePollingPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        when(cache.keySet()).thenReturn(Set.of("zocca", "london"));
+        received("zocca", START);
+        received("london", START);
+        plan = new AdaptivePollingPlan(cache, accessFrequency,
+                Duration.ofMillis(TICK_MS * AdaptivePollingPlan.TICKS_PER_INTERVAL), now::get);
+    }
+
+    @Test
+    void select_ShouldRefreshRequestedCityOnEveryTick() {
+        accessFrequency.increment("zocca");
+        accessFrequency.increment("zocca");
+
+        for (int tick = 1; tick < AdaptivePollingPlan.TICKS_PER_INTERVAL; tick++) {
+            now.set(START + tick * TICK_MS);
+            assertEquals(List.of("zocca"), plan.select(10, key -> false), "tick " + tick);
+            // The refresh completes a little after the tick that started it
+            received("zocca", now.get() + 10);
+        }
+    }
+
+    @Test
+    void select_refreshedDuringThisTick_ShouldSkipCity() {
+        accessFrequency.increment("zocca");
+        received("zocca", START + TICK_MS - 10);
+        now.set(START + TICK_MS);
+
+        assertEquals(List.of(), plan.select(10, key -> false));
+    }
+
+    @Test
+    void select_cityRequestedOnce_ShouldStopPollingAfterAnInterval() {
+        accessFrequency.increment("zocca");
+        now.set(START + TICK_MS);
+        assertEquals(List.of("zocca"), plan.select(10, key -> false));
+
+        now.set(START + TICK_MS * AdaptivePollingPlan.TICKS_PER_INTERVAL);
+
+        assertEquals(List.of(), plan.select(10, key -> false));
+    }
+
+    private void received(String key, long receiptTime) {
+        when(cache.peek(key)).thenReturn(new CacheEntry(new WeatherData(), receiptTime));
+    }
+}
@@ -1,9 +1,17 @@
 package org.example.sdk;
 
+import org.example.cache.InMemoryCacheTier;
 import org.example.cache.WeatherCache;
+import org.example.concurrent.CircuitBreaker;
 import org.example.constant.Mode;
+import org.example.error.CircuitOpenException;
 import org.example.error.SDKException;
+import org.example.geo.City;
+import org.example.geo.CityIndex;
+import org.example.metrics.SDKMetrics;
+import org.example.model.ForecastSeries;
 import org.example.model.WeatherData;
+import org.example.model.WeatherResult;
 import org.example.service.WeatherService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,15 +21,33 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -89,6 +115,136 @@ class OpenWeatherMapSDKImplTest {
         verify(mockWeatherService).fetchWeather(CITY);
     }
 
+    @Test
+    void getCurrentWeather_concurrentMisses_ShouldShareSingleFetch() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        WeatherData data = new WeatherData();
+        when(mockWeatherService.fetchWeather(CITY)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return data;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<WeatherData>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> onDemandSdk.getCurrentWeather(CITY)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (onDemandSdk.getDeduplicatedRequestCount() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<WeatherData> result : results) {
+                assertSame(data, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(mockWeatherService, times(1)).fetchWeather(CITY);
+        assertEquals(callers - 1, onDemandSdk.getDeduplicatedRequestCount());
+    }
+
+    @Test
+    void virtualThreads_ShouldBoundConcurrentUpstreamRequests() throws Exception {
+        SDKConfig config = SDKConfig.builder().virtualThreads(true).maxConcurrentRequests(4).build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(mockWeatherService.fetchWeather(anyString())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return new WeatherData();
+        });
+
+        List<CompletableFuture<WeatherData>> lookups = new ArrayList<>();
+        for (int i = 0; i < 100; i++) lookups.add(sdk.getCurrentWeatherAsync("city" + i));
+        for (CompletableFuture<WeatherData> lookup : lookups) assertNotNull(lookup.get(5, TimeUnit.SECONDS));
+
+        assertTrue(maxRunning.get() <= 4, "max concurrent requests: " + maxRunning.get());
+        verify(mockWeatherService, times(100)).fetchWeather(anyString());
+        verify(mockWeatherService, never()).fetchWeatherAsync(anyString());
+        sdk.delete();
+    }
+
+    @Test
+    void virtualThreads_delete_ShouldCloseFetchExecutor() throws Exception {
+        SDKConfig config = SDKConfig.builder().virtualThreads(true).build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+        assertNotNull(sdk.getCurrentWeatherAsync(CITY).get(5, TimeUnit.SECONDS));
+
+        sdk.delete();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> sdk.getCurrentWeatherAsync("london").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SDKException.class, e.getCause());
+    }
+
+    @Test
+    void getCurrentWeatherAsync_ShouldFetchOnceAndServeFromCache() throws Exception {
+        WeatherData data = new WeatherData();
+        when(mockWeatherService.fetchWeatherAsync(CITY)).thenReturn(CompletableFuture.completedFuture(data));
+
+        assertSame(data, onDemandSdk.getCurrentWeatherAsync(CITY).get(5, TimeUnit.SECONDS));
+        assertSame(data, onDemandSdk.getCurrentWeatherAsync(CITY).get(5, TimeUnit.SECONDS));
+
+        verify(mockWeatherService, times(1)).fetchWeatherAsync(CITY);
+        verify(mockWeatherService, never()).fetchWeather(anyString());
+    }
+
+    @Test
+    void getCurrentWeatherAsync_apiFails_ShouldCompleteExceptionally() {
+        when(mockWeatherService.fetchWeatherAsync(CITY))
+                .thenReturn(CompletableFuture.failedFuture(new SDKException("Network error")));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> onDemandSdk.getCurrentWeatherAsync(CITY).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SDKException.class, e.getCause());
+    }
+
+    @Test
+    void getCurrentWeatherBatch_ShouldServeHitsAndReportFailuresPerCity() throws SDKException {
+        onDemandSdk.getCurrentWeather(CITY);
+        WeatherData london = new WeatherData();
+        when(mockWeatherService.fetchWeatherAsync("london")).thenReturn(CompletableFuture.completedFuture(london));
+        when(mockWeatherService.fetchWeatherAsync("atlantis"))
+                .thenReturn(CompletableFuture.failedFuture(new SDKException("Not found")));
+
+        Map<String, WeatherResult> results = onDemandSdk.getCurrentWeather(List.of(CITY, "london", "atlantis"));
+
+        assertEquals(List.of(CITY, "london", "atlantis"), new ArrayList<>(results.keySet()));
+        assertTrue(results.get(CITY).isSuccess());
+        assertSame(london, results.get("london").getData());
+        assertFalse(results.get("atlantis").isSuccess());
+        assertNotNull(results.get("atlantis").getError());
+        verify(mockWeatherService, never()).fetchWeatherAsync(CITY);
+    }
+
+    @Test
+    void getCurrentWeatherBatch_ShouldCountEachMissOnce() throws SDKException {
+        AtomicInteger misses = new AtomicInteger();
+        SDKConfig config = SDKConfig.builder().metrics(new SDKMetrics() {
+            @Override
+            public void cacheMiss() {
+                misses.incrementAndGet();
+            }
+        }).build();
+        when(mockWeatherService.fetchWeatherAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherData()));
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+
+        sdk.getCurrentWeather(List.of(CITY, "london"));
+
+        assertEquals(2, misses.get());
+    }
+
     // POLLING
 
     @Test
@@ -105,6 +261,72 @@ class OpenWeatherMapSDKImplTest {
         verify(mockWeatherService, times(1)).fetchWeather(CITY);
     }
 
+    @Test
+    void pollingMode_ShouldRefreshCachedCitiesInBackground() throws SDKException {
+        SDKConfig config = SDKConfig.builder()
+                .mode(Mode.POLLING)
+                .pollingInterval(Duration.ofMillis(100))
+                .pollingRequestsPerMinute(6_000)
+                .build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, new WeatherCache());
+        try {
+            sdk.getCurrentWeather(CITY);
+            sdk.getCurrentWeather("london");
+
+            verify(mockWeatherService, timeout(2_000).atLeast(2)).fetchWeather(CITY);
+            verify(mockWeatherService, timeout(2_000).atLeast(2)).fetchWeather("london");
+        } finally {
+            sdk.shutdownPolling();
+        }
+        assertTrue(sdk.getScheduler().isShutdown());
+    }
+
+    @Test
+    void pollingCycle_ShouldNotHoldUpScheduler() throws Exception {
+        SDKConfig config = SDKConfig.builder()
+                .mode(Mode.POLLING)
+                .pollingInterval(Duration.ofSeconds(1))
+                .pollingRequestsPerMinute(60_000)
+                .maxEntries(50)
+                .build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, new WeatherCache());
+        try {
+            for (int i = 0; i < 50; i++) {
+                sdk.getCurrentWeather("City" + i);
+            }
+            // The cycle paces 50 cities over half a second; the scheduler must stay free meanwhile
+            verify(mockWeatherService, timeout(2_000).atLeast(51)).fetchWeather(anyString());
+            CountDownLatch ran = new CountDownLatch(1);
+            sdk.getScheduler().execute(ran::countDown);
+
+            assertTrue(ran.await(100, TimeUnit.MILLISECONDS));
+        } finally {
+            sdk.shutdownPolling();
+        }
+    }
+
+    @Test
+    void adaptivePolling_ShouldRefreshRequestedCitiesOnly() throws Exception {
+        SDKConfig config = SDKConfig.builder()
+                .mode(Mode.POLLING)
+                .pollingInterval(Duration.ofMillis(400))
+                .pollingRequestsPerMinute(6_000)
+                .adaptivePolling(true)
+                .build();
+        WeatherCache cache = new WeatherCache();
+        cache.put("london", new WeatherData()); // cached, but never requested
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, cache);
+        try {
+            sdk.getCurrentWeather(CITY);
+
+            // Waits for a polling tick; how often a city is refreshed is covered by AdaptivePollingPlanTest
+            verify(mockWeatherService, timeout(2_000).atLeast(2)).fetchWeather(CITY);
+            verify(mockWeatherService, never()).fetchWeather("london");
+        } finally {
+            sdk.shutdownPolling();
+        }
+    }
+
     // Cache
 
     @Test
@@ -119,6 +341,159 @@ class OpenWeatherMapSDKImplTest {
         assertNotNull(cache.getFresh("city1"));
     }
 
+    @Test
+    void cacheCapacity_ShouldFollowConfig() throws SDKException {
+        SDKConfig config = SDKConfig.builder().maxEntries(3).ttl(Duration.ofMinutes(1)).build();
+        WeatherCache smallCache = new WeatherCache(config.getMaxEntries(), config.getTtl());
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, smallCache);
+
+        for (int i = 0; i < 5; i++) {
+            sdk.getCurrentWeather("City" + i);
+        }
+
+        assertEquals(3, smallCache.size());
+        assertNull(smallCache.getFresh("city1"));
+        assertNotNull(smallCache.getFresh("city4"));
+    }
+
+    @Test
+    void staleWhileRevalidate_ShouldServeStaleDataAndReloadInBackground() throws Exception {
+        SDKConfig config = SDKConfig.builder()
+                .ttl(Duration.ofMillis(50))
+                .staleWhileRevalidate(Duration.ofMinutes(1))
+                .build();
+        WeatherCache swrCache = new WeatherCache(config.getMaxEntries(), config.getTtl(),
+                config.getRefreshAheadFactor(), config.getStaleWhileRevalidate());
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, swrCache);
+        WeatherData reloaded = new WeatherData();
+        when(mockWeatherService.fetchWeatherAsync(CITY)).thenReturn(CompletableFuture.completedFuture(reloaded));
+
+        WeatherData first = sdk.getCurrentWeather(CITY);
+        Thread.sleep(100);
+
+        assertSame(first, sdk.getCurrentWeather(CITY));
+        verify(mockWeatherService, timeout(2_000)).fetchWeatherAsync(CITY);
+        assertSame(reloaded, swrCache.getEntry(CITY).getData());
+        verify(mockWeatherService, times(1)).fetchWeather(CITY);
+    }
+
+    @Test
+    void unknownCity_ShouldBeAnsweredFromNegativeCache() throws Exception {
+        when(mockWeatherService.fetchWeather("atlantis")).thenThrow(new SDKException("Error API (HTTP 404)", 404));
+
+        SDKException first = assertThrows(SDKException.class, () -> onDemandSdk.getCurrentWeather("atlantis"));
+        SDKException second = assertThrows(SDKException.class, () -> onDemandSdk.getCurrentWeather("Atlantis"));
+        ExecutionException async = assertThrows(ExecutionException.class,
+                () -> onDemandSdk.getCurrentWeatherAsync("atlantis").get(1, TimeUnit.SECONDS));
+
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(404, second.getStatusCode());
+        assertInstanceOf(SDKException.class, async.getCause());
+        verify(mockWeatherService, times(1)).fetchWeather("atlantis");
+        verify(mockWeatherService, never()).fetchWeatherAsync("atlantis");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void circuitOpen_ShouldFailFastAndServeStaleData() throws Exception {
+        List<CircuitBreaker.State> transitions = new CopyOnWriteArrayList<>();
+        SDKConfig config = SDKConfig.builder()
+                .ttl(Duration.ofMillis(50))
+                .circuitBreakerFailureThreshold(2)
+                .circuitBreakerListener((from, to) -> transitions.add(to))
+                .build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                new WeatherCache(config.getMaxEntries(), config.getTtl()));
+        WeatherData first = sdk.getCurrentWeather(CITY);
+        Thread.sleep(100);
+        when(mockWeatherService.fetchWeather("paris")).thenThrow(new SDKException("Service unavailable", 503));
+
+        assertThrows(SDKException.class, () -> sdk.getCurrentWeather("paris"));
+        assertThrows(SDKException.class, () -> sdk.getCurrentWeather("paris"));
+
+        assertEquals(CircuitBreaker.State.OPEN, sdk.getCircuitState());
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions);
+        assertThrows(CircuitOpenException.class, () -> sdk.getCurrentWeather("paris"));
+        assertSame(first, sdk.getCurrentWeather(CITY));
+        verify(mockWeatherService, times(2)).fetchWeather("paris");
+        verify(mockWeatherService, times(1)).fetchWeather(CITY);
+        sdk.delete();
+    }
+
+    @Test
+    void remoteCacheTier_ShouldServeCityFetchedByAnotherInstance() throws SDKException {
+        SDKConfig config = SDKConfig.builder().remoteCacheTier(new InMemoryCacheTier()).build();
+        OpenWeatherMapSDKImpl first = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+        OpenWeatherMapSDKImpl second = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+
+        WeatherData fetched = first.getCurrentWeather(CITY);
+
+        assertSame(fetched, second.getCurrentWeather("Zocca"));
+        verify(mockWeatherService, times(1)).fetchWeather(anyString());
+        first.delete();
+        second.delete();
+    }
+
+    @Test
+    void cityIndex_ShouldShareOneEntryAcrossSpellingsAndNearbyCoordinates() throws SDKException {
+        SDKConfig config = SDKConfig.builder()
+                .cityIndex(CityIndex.of(List.of(
+                        new City(2643743, "London", "GB", 51.50853, -0.12574),
+                        new City(6058560, "London", "CA", 42.983391, -81.23304))))
+                .build();
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService, new WeatherCache());
+        WeatherData london = new WeatherData();
+        when(mockWeatherService.fetchWeatherById(2643743)).thenReturn(london);
+
+        assertSame(london, sdk.getCurrentWeather("London"));
+        assertSame(london, sdk.getCurrentWeather("london,GB"));
+        assertSame(london, sdk.getCurrentWeatherById(2643743));
+        assertSame(london, sdk.getCurrentWeatherByCoordinates(51.51, -0.13));
+
+        verify(mockWeatherService, times(1)).fetchWeatherById(2643743);
+        verify(mockWeatherService, never()).fetchWeather(anyString());
+        sdk.delete();
+    }
+
+    @Test
+    void getCurrentWeatherByCoordinates_withoutIndex_ShouldShareRoundedEntry() throws SDKException {
+        WeatherData data = new WeatherData();
+        when(mockWeatherService.fetchWeatherByCoordinates(44.34, 10.99)).thenReturn(data);
+
+        assertSame(data, onDemandSdk.getCurrentWeatherByCoordinates(44.3401, 10.9899));
+        assertSame(data, onDemandSdk.getCurrentWeatherByCoordinates(44.3398, 10.9902));
+
+        verify(mockWeatherService, times(1)).fetchWeatherByCoordinates(44.34, 10.99);
+        assertThrows(SDKException.class, () -> onDemandSdk.getCurrentWeatherByCoordinates(91, 0));
+        assertThrows(SDKException.class, () -> onDemandSdk.getCurrentWeatherById(0));
+    }
+
+    @Test
+    void sdkConfig_ShouldRejectInvalidValues() {
+        assertThrows(SDKException.class, () -> SDKConfig.builder().maxEntries(0));
+        assertThrows(SDKException.class, () -> SDKConfig.builder().ttl(Duration.ZERO));
+        assertThrows(SDKException.class, () -> SDKConfig.builder().pollingInterval(null));
+        assertThrows(SDKException.class, () -> SDKConfig.builder().refreshAheadFactor(1.5));
+        assertThrows(SDKException.class, () -> SDKConfig.builder().circuitBreakerFailureThreshold(-1));
+        assertThrows(SDKException.class, () -> SDKConfig.builder().pollingRetries(-1));
+    }
+
+    @Test
+    void defaultConfig_ShouldNotReloadEntriesWithinTtl() throws SDKException {
+        SDKConfig config = SDKConfig.of(Mode.ON_DEMAND);
+        assertEquals(1.0, config.getRefreshAheadFactor());
+
+        OpenWeatherMapSDKImpl sdk = new OpenWeatherMapSDKImpl(API_KEY, config, mockWeatherService,
+                OpenWeatherMapSDKImpl.createCache(config));
+        sdk.getCurrentWeather(CITY);
+        sdk.getCurrentWeather(CITY);
+
+        verify(mockWeatherService, times(1)).fetchWeather(CITY);
+        verify(mockWeatherService, never()).fetchWeatherAsync(CITY);
+    }
+
     // Delete
 
     @Test
@@ -198,4 +573,19 @@ class OpenWeatherMapSDKImplTest {
             }
         };
     }
+
+    @Test
+    void getForecast_ShouldServeRepeatedLookupsFromForecastCache() {
+        ForecastSeries series = ForecastSeries.builder()
+                .city(3163858, "Zocca", TIMEZONE)
+                .addPoint(DATE_TIME, TEMPERATURE, FEELS_LIKE, 85, WIND_SPEED, 0, WEATHER_MAIN, DESCRIPTION)
+                .build();
+        when(mockWeatherService.fetchForecast(CITY)).thenReturn(series);
+
+        assertSame(series, onDemandSdk.getForecast(CITY));
+        assertSame(series, onDemandSdk.getForecast("Zocca"));
+
+        verify(mockWeatherService, times(1)).fetchForecast(CITY);
+        verify(mockWeatherService, never()).fetchWeather(anyString());
+    }
 }
@@ -0,0 +1,70 @@
+package org.example.sdk;
+
+import org.example.constant.Mode;
+import org.example.error.SDKException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollingRefresherTest {
+
+    private static final String CITY = "zocca";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService workers = Executors.newFixedThreadPool(2);
+    private final ExecutorService cycles = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        cycles.shutdownNow();
+    }
+
+    @Test
+    void retryDelayedPastItsCycle_ShouldBeDropped() throws Exception {
+        SDKConfig config = SDKConfig.builder()
+                .mode(Mode.POLLING)
+                .pollingInterval(Duration.ofMillis(200))
+                .pollingRequestsPerMinute(60_000)
+                .pollingRetries(2)
+                .pollingRetryBackoff(Duration.ofMillis(20))
+                .build();
+        AtomicInteger cycle = new AtomicInteger();
+        AtomicInteger refreshes = new AtomicInteger();
+        PollingRefresher refresher = new PollingRefresher(scheduler, workers, cycles, config,
+                // Only the first cycle has a city to refresh, so any later refresh is a retry
+                budget -> cycle.getAndIncrement() == 0 ? List.of(List.of(CITY)) : List.of(),
+                cities -> {
+                    refreshes.incrementAndGet();
+                    // Holds up the scheduler until the cycle is over, so that the retry fires too late
+                    scheduler.execute(() -> sleep(300));
+                    return Map.of(CITY, new SDKException("Upstream unavailable"));
+                });
+
+        refresher.start(true);
+        Thread.sleep(600);
+        refresher.stop();
+
+        assertEquals(1, refreshes.get());
+        assertEquals(0, refresher.getBacklog());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
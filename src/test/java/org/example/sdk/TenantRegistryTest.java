@@ -0,0 +1,123 @@
+package org.example.sdk;
+
+import org.example.constant.Mode;
+import org.example.error.SDKException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantRegistryTest {
+
+    private TenantRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) registry.close();
+    }
+
+    @Test
+    void get_ShouldShareTheSchedulerAcrossTenants() {
+        registry = TenantRegistry.builder().config(SDKConfig.of(Mode.POLLING)).build();
+
+        OpenWeatherMapSDKImpl first = (OpenWeatherMapSDKImpl) registry.get("key-1");
+        OpenWeatherMapSDKImpl second = (OpenWeatherMapSDKImpl) registry.get("key-2");
+
+        assertSame(first, registry.get("key-1"));
+        assertNotSame(first, second);
+        assertSame(first.getScheduler(), second.getScheduler());
+
+        registry.release("key-1");
+        assertFalse(second.getScheduler().isShutdown(), "releasing a tenant must not stop the shared scheduler");
+        assertEquals(1, registry.getTenantCount());
+
+        registry.close();
+        assertTrue(second.getScheduler().isShutdown());
+        assertThrows(SDKException.class, () -> registry.get("key-3"));
+    }
+
+    @Test
+    void get_concurrentFirstLookups_ShouldPublishOneTenant() throws Exception {
+        registry = TenantRegistry.builder().config(SDKConfig.of(Mode.POLLING)).build();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<OpenWeatherMapSDK>> lookups = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                lookups.add(pool.submit(() -> {
+                    start.await();
+                    return registry.get("key");
+                }));
+            }
+            start.countDown();
+
+            OpenWeatherMapSDK tenant = registry.get("key");
+            for (Future<OpenWeatherMapSDK> lookup : lookups) {
+                assertSame(tenant, lookup.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, registry.getTenantCount());
+        assertEquals(SDKConfig.of(Mode.POLLING).getMaxEntries(), registry.getReservedEntries());
+    }
+
+    @Test
+    void get_overTotalBudget_ShouldEvictLeastRecentlyUsedTenant() throws Exception {
+        registry = TenantRegistry.builder()
+                .cacheQuota(key -> key.startsWith("big") ? 60 : 20)
+                .maxTotalEntries(100)
+                .build();
+
+        OpenWeatherMapSDK small1 = registry.get("small-1");
+        Thread.sleep(5);
+        registry.get("small-2");
+        Thread.sleep(5);
+        registry.get("small-1"); // small-2 is now the least recently used
+        registry.get("big-1");
+        assertEquals(100, registry.getReservedEntries());
+
+        registry.get("small-3");
+
+        assertEquals(3, registry.getTenantCount());
+        assertEquals(100, registry.getReservedEntries());
+        assertSame(small1, registry.get("small-1"));
+    }
+
+    @Test
+    void get_quotaAboveTotalBudget_ShouldThrow() {
+        registry = TenantRegistry.builder().cacheQuota(key -> 200).maxTotalEntries(100).build();
+
+        assertThrows(SDKException.class, () -> registry.get("key"));
+        assertEquals(0, registry.getTenantCount());
+    }
+
+    @Test
+    void idleTenants_ShouldBeEvicted() throws Exception {
+        registry = TenantRegistry.builder().idleTimeout(Duration.ofMillis(100)).build();
+        registry.get("idle");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (registry.getTenantCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(0, registry.getTenantCount());
+        assertEquals(0, registry.getReservedEntries());
+    }
+}
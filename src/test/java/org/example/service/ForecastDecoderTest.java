@@ -0,0 +1,49 @@
+package org.example.service;
+
+import okio.Buffer;
+import org.example.model.ForecastSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForecastDecoderTest {
+
+    private static final String RESPONSE = "{\"cod\":\"200\",\"message\":0,\"cnt\":2,\"list\":["
+            + "{\"dt\":1661871600,\"main\":{\"temp\":296.76,\"feels_like\":296.98,\"temp_min\":296.76,"
+            + "\"humidity\":69},\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\","
+            + "\"icon\":\"10d\"}],\"clouds\":{\"all\":100},\"wind\":{\"speed\":0.62,\"deg\":349},"
+            + "\"visibility\":10000,\"pop\":0.32,\"rain\":{\"3h\":0.26},\"sys\":{\"pod\":\"d\"},"
+            + "\"dt_txt\":\"2022-08-30 15:00:00\"},"
+            + "{\"dt\":1661882400,\"main\":{\"temp\":295.45,\"feels_like\":295.59,\"humidity\":71},"
+            + "\"weather\":[{\"id\":802,\"main\":\"Clouds\",\"description\":\"scattered clouds\"}],"
+            + "\"wind\":{\"speed\":1.97},\"pop\":0}],"
+            + "\"city\":{\"id\":3163858,\"name\":\"Zocca\",\"coord\":{\"lat\":44.34,\"lon\":10.99},"
+            + "\"country\":\"IT\",\"population\":4593,\"timezone\":7200,\"sunrise\":1661834187}}";
+
+    @Test
+    void decode_ShouldFillColumnsAndCity() throws IOException {
+        ForecastSeries series = ForecastDecoder.decode(new Buffer().writeUtf8(RESPONSE));
+
+        assertEquals(3163858, series.getCityId());
+        assertEquals("Zocca", series.getName());
+        assertEquals(7200, series.getTimezone());
+        assertEquals(2, series.size());
+        assertEquals(1661871600, series.getTime(0));
+        assertEquals(296.76, series.getTemperature(0));
+        assertEquals(296.98, series.getFeelsLike(0));
+        assertEquals(69, series.getHumidity(0));
+        assertEquals(0.62, series.getWindSpeed(0));
+        assertEquals(0.32, series.getPrecipitationProbability(0));
+        assertEquals("light rain", series.getConditionDescription(0));
+        assertEquals("Clouds", series.getConditionMain(1));
+        assertEquals(0.0, series.getPrecipitationProbability(1));
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedJson() {
+        assertThrows(IOException.class, () -> ForecastDecoder.decode(new Buffer().writeUtf8("{\"list\":[{\"dt\":")));
+    }
+}
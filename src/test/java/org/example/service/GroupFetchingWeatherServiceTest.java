@@ -0,0 +1,55 @@
+package org.example.service;
+
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupFetchingWeatherServiceTest {
+
+    private final WeatherSource delegate = mock(WeatherSource.class);
+
+    @Test
+    void fetchWeatherByIdAsync_afterFullGroup_ShouldWaitForItsOwnWindow() throws Exception {
+        when(delegate.fetchGroupAsync(anyCollection())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(delegate.fetchWeatherByIdAsync(anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherData()));
+        GroupFetchingWeatherService service = new GroupFetchingWeatherService(delegate, Duration.ofMillis(400));
+        List<Long> full = new ArrayList<>();
+        for (long id = 1; id <= WeatherService.MAX_GROUP_SIZE; id++) full.add(id);
+
+        // Sent full right away; its window would have closed at 400 ms
+        full.forEach(service::fetchWeatherByIdAsync);
+        Thread.sleep(200);
+        service.fetchWeatherByIdAsync(100L); // opens a window closing at 600 ms
+        Thread.sleep(300);
+        service.fetchWeatherByIdAsync(101L);
+
+        verify(delegate, timeout(2_000)).fetchGroupAsync(List.of(100L, 101L));
+        verify(delegate).fetchGroupAsync(full);
+        verify(delegate, never()).fetchWeatherByIdAsync(anyLong());
+    }
+
+    @Test
+    void fetchWeatherByIdAsync_singleIdInWindow_ShouldUseRegularEndpoint() {
+        when(delegate.fetchWeatherByIdAsync(anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherData()));
+        GroupFetchingWeatherService service = new GroupFetchingWeatherService(delegate, Duration.ofMillis(10));
+
+        service.fetchWeatherByIdAsync(1L).join();
+
+        verify(delegate).fetchWeatherByIdAsync(1L);
+        verify(delegate, never()).fetchGroupAsync(anyCollection());
+    }
+}
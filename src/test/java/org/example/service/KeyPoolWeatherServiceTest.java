@@ -0,0 +1,116 @@
+package org.example.service;
+
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import org.example.error.SDKException;
+import org.example.metrics.SDKMetrics;
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyPoolWeatherServiceTest {
+
+    private static final String RESPONSE = "{\"weather\":[{\"main\":\"Clouds\",\"description\":\"scattered clouds\"}],"
+            + "\"main\":{\"temp\":269.6,\"feels_like\":267.57},\"visibility\":10000,\"name\":\"Zocca\"}";
+
+    private final HttpTransport transport = HttpTransport.builder().build();
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        transport.shutdown();
+    }
+
+    private KeyPoolWeatherService pool(int requestsPerMinutePerKey, String... keys) {
+        return new KeyPoolWeatherService(List.of(keys), transport.client(),
+                server.url("/data/2.5/weather").toString(), SDKMetrics.NOOP, requestsPerMinutePerKey);
+    }
+
+    @Test
+    void fetchWeather_ShouldRotateOverKeys() throws Exception {
+        KeyPoolWeatherService service = pool(600, "key-1", "key-2", "key-3");
+        for (int i = 0; i < 3; i++) server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+
+        Set<String> usedKeys = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            service.fetchWeather("Zocca");
+            usedKeys.add(server.takeRequest(1, TimeUnit.SECONDS).getUrl().queryParameter("appid"));
+        }
+
+        assertEquals(Set.of("key-1", "key-2", "key-3"), usedKeys);
+        service.getKeyStatuses().forEach(status -> assertEquals(1, status.getRequests()));
+    }
+
+    @Test
+    void fetchWeather_throttledKey_ShouldBackOffAndRetryWithAnotherKey() throws Exception {
+        KeyPoolWeatherService service = pool(600, "key-1", "key-2");
+        server.enqueue(new MockResponse.Builder().code(429).build());
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+
+        WeatherData data = service.fetchWeather("Zocca");
+        String throttledKey = server.takeRequest(1, TimeUnit.SECONDS).getUrl().queryParameter("appid");
+        String retryKey = server.takeRequest(1, TimeUnit.SECONDS).getUrl().queryParameter("appid");
+
+        assertEquals("Zocca", data.getName());
+        assertFalse(throttledKey.equals(retryKey));
+
+        // The throttled key is skipped while it backs off
+        service.fetchWeather("Zocca");
+        assertEquals(retryKey, server.takeRequest(1, TimeUnit.SECONDS).getUrl().queryParameter("appid"));
+        assertEquals(1, service.getKeyStatuses().stream().filter(KeyPoolWeatherService.KeyStatus::isBackingOff).count());
+    }
+
+    @Test
+    void fetchWeatherAsync_allKeysThrottled_ShouldFailWith429() {
+        KeyPoolWeatherService service = pool(600, "key-1", "key-2");
+        server.enqueue(new MockResponse.Builder().code(429).build());
+        server.enqueue(new MockResponse.Builder().code(429).build());
+
+        Exception e = assertThrows(Exception.class, () -> service.fetchWeatherAsync("Zocca").get(2, TimeUnit.SECONDS));
+        SDKException cause = (SDKException) e.getCause();
+        assertEquals(429, cause.getStatusCode());
+        assertEquals(2, server.getRequestCount());
+
+        // Every key is backing off now: fail fast without a request
+        SDKException fastFail = assertThrows(SDKException.class, () -> service.fetchWeather("Zocca"));
+        assertEquals(429, fastFail.getStatusCode());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void fetchWeather_clientError_ShouldNotRetry() {
+        KeyPoolWeatherService service = pool(600, "key-1", "key-2");
+        server.enqueue(new MockResponse.Builder().code(404).build());
+
+        SDKException e = assertThrows(SDKException.class, () -> service.fetchWeather("Atlantis"));
+
+        assertEquals(404, e.getStatusCode());
+        assertEquals(1, server.getRequestCount());
+        assertTrue(service.getKeyStatuses().stream().noneMatch(KeyPoolWeatherService.KeyStatus::isBackingOff));
+    }
+
+    @Test
+    void constructor_emptyPool_ShouldThrow() {
+        assertThrows(SDKException.class, () -> pool(60));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.service;
+
+import com.google.gson.Gson;
+import okio.Buffer;
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WeatherDataDecoderTest {
+
+    @Test
+    void decode_ShouldMatchGsonBinding() throws IOException {
+        String json = readResource("/weather-zocca.json");
+
+        WeatherData expected = new Gson().fromJson(json, WeatherData.class);
+        WeatherData actual = WeatherDataDecoder.decode(json(json));
+
+        assertEquals(expected.getWeatherList().size(), actual.getWeatherList().size());
+        assertEquals(expected.getWeather().getMain(), actual.getWeather().getMain());
+        assertEquals(expected.getWeather().getDescription(), actual.getWeather().getDescription());
+        assertEquals(expected.getTemperature().getTemp(), actual.getTemperature().getTemp());
+        assertEquals(expected.getTemperature().getFeelsLike(), actual.getTemperature().getFeelsLike());
+        assertEquals(expected.getVisibility(), actual.getVisibility());
+        assertEquals(expected.getWind().getSpeed(), actual.getWind().getSpeed());
+        assertEquals(expected.getDatetime(), actual.getDatetime());
+        assertEquals(expected.getSys().getSunrise(), actual.getSys().getSunrise());
+        assertEquals(expected.getSys().getSunset(), actual.getSys().getSunset());
+        assertEquals(expected.getTimezone(), actual.getTimezone());
+        assertEquals(expected.getCityId(), actual.getCityId());
+        assertEquals(3163858, actual.getCityId());
+        assertEquals(expected.getName(), actual.getName());
+    }
+
+    @Test
+    void decode_ShouldTolerateNullsAndMissingFields() throws IOException {
+        WeatherData data = WeatherDataDecoder.decode(json("{\"name\":null,\"wind\":{\"speed\":null,\"deg\":1}}"));
+
+        assertNull(data.getName());
+        assertNull(data.getWeather());
+        assertEquals(0.0, data.getWind().getSpeed());
+    }
+
+    @Test
+    void decodeGroup_ShouldDecodeEveryCity() throws IOException {
+        List<WeatherData> list = WeatherDataDecoder.decodeGroup(json(
+                "{\"cnt\":2,\"list\":[{\"id\":1,\"name\":\"Zocca\"},{\"id\":2,\"name\":\"Paris\"}]}"));
+
+        assertEquals(2, list.size());
+        assertEquals(1, list.get(0).getCityId());
+        assertEquals("Paris", list.get(1).getName());
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedJson() {
+        assertThrows(IOException.class, () -> WeatherDataDecoder.decode(json("{\"name\":")));
+    }
+
+    @Test
+    void decode_ShouldUnescapeStringsAndSkipUnknownValues() throws IOException {
+        WeatherData data = WeatherDataDecoder.decode(json("{\"coord\":{\"lon\":-1.5e2,\"tags\":[\"a\\\"b\",null,true,{}]},"
+                + "\"name\":\"S\\u00e3o \\\"Paulo\\\"\\n\",\"visibility\":1.0E4,\"dt\":-12,"
+                + "\"wind\":{\"speed\":3}}"));
+
+        assertEquals("S\u00e3o \"Paulo\"\n", data.getName());
+        assertEquals(10000, data.getVisibility());
+        assertEquals(-12, data.getDatetime());
+        assertEquals(3.0, data.getWind().getSpeed());
+    }
+
+    @Test
+    void decode_ShouldDecodeMultiByteCharacters() throws IOException {
+        WeatherData data = WeatherDataDecoder.decode(json("{\"name\":\"Zürich 東京\"}"));
+
+        assertEquals("Zürich 東京", data.getName());
+    }
+
+    private static Buffer json(String json) {
+        return new Buffer().writeUtf8(json);
+    }
+
+    private static String readResource(String name) throws IOException {
+        try (InputStream in = WeatherDataDecoderTest.class.getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.service;
+
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import org.example.error.ApiResponseException;
+import org.example.error.SDKException;
+import org.example.model.ForecastSeries;
+import org.example.model.WeatherData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherServiceTest {
+
+    private static final String API_KEY = "testKey";
+    private static final String RESPONSE = "{\"weather\":[{\"main\":\"Clouds\",\"description\":\"scattered clouds\"}],"
+            + "\"main\":{\"temp\":269.6,\"feels_like\":267.57},\"visibility\":10000,\"name\":\"Zocca\"}";
+    private static final String GROUP_RESPONSE = "{\"cnt\":2,\"list\":["
+            + "{\"id\":2,\"name\":\"Paris\"},{\"id\":1,\"name\":\"Zocca\"}]}";
+
+    private final HttpTransport transport = HttpTransport.builder()
+            .readTimeout(Duration.ofSeconds(2))
+            .build();
+    private MockWebServer server;
+    private WeatherService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        service = new WeatherService(API_KEY, transport.client(), server.url("/data/2.5/weather").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        transport.shutdown();
+    }
+
+    @Test
+    void fetchWeather_ShouldSendEncodedCityAndKey() throws Exception {
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+
+        WeatherData data = service.fetchWeather("São Paulo");
+
+        assertEquals("Zocca", data.getName());
+        assertEquals(269.6, data.getTemperature().getTemp());
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("São Paulo", request.getUrl().queryParameter("q"));
+        assertEquals(API_KEY, request.getUrl().queryParameter("appid"));
+    }
+
+    @Test
+    void fetchWeatherByIdAndCoordinates_ShouldSendMatchingQuery() throws Exception {
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+
+        service.fetchWeatherById(3163858);
+        service.fetchWeatherByCoordinatesAsync(44.34, 10.99).get(2, TimeUnit.SECONDS);
+
+        RecordedRequest byId = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("3163858", byId.getUrl().queryParameter("id"));
+        RecordedRequest byCoordinates = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("44.34", byCoordinates.getUrl().queryParameter("lat"));
+        assertEquals("10.99", byCoordinates.getUrl().queryParameter("lon"));
+        assertEquals(API_KEY, byCoordinates.getUrl().queryParameter("appid"));
+    }
+
+    @Test
+    void fetchGroup_ShouldSendIdsToGroupEndpoint() throws Exception {
+        server.enqueue(new MockResponse.Builder().body(GROUP_RESPONSE).build());
+
+        List<WeatherData> list = service.fetchGroup(List.of(1L, 2L));
+
+        assertEquals(2, list.size());
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/data/2.5/group", request.getUrl().encodedPath());
+        assertEquals("1,2", request.getUrl().queryParameter("id"));
+    }
+
+    @Test
+    void fetchForecast_ShouldUseForecastEndpoint() throws Exception {
+        server.enqueue(new MockResponse.Builder()
+                .body("{\"list\":[{\"dt\":1661871600,\"main\":{\"temp\":296.76}}],\"city\":{\"id\":1}}")
+                .build());
+
+        ForecastSeries series = service.fetchForecastById(1);
+
+        assertEquals(1, series.size());
+        assertEquals(296.76, series.getTemperature(0));
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/data/2.5/forecast", request.getUrl().encodedPath());
+        assertEquals("1", request.getUrl().queryParameter("id"));
+        assertEquals(API_KEY, request.getUrl().queryParameter("appid"));
+    }
+
+    @Test
+    void groupFetching_ShouldCoalesceConcurrentLookupsById() throws Exception {
+        server.enqueue(new MockResponse.Builder().body(GROUP_RESPONSE).build());
+        GroupFetchingWeatherService grouping = new GroupFetchingWeatherService(service, Duration.ofMillis(100));
+
+        CompletableFuture<WeatherData> first = grouping.fetchWeatherByIdAsync(1);
+        CompletableFuture<WeatherData> second = grouping.fetchWeatherByIdAsync(2);
+
+        assertEquals("Zocca", first.get(2, TimeUnit.SECONDS).getName());
+        assertEquals("Paris", second.get(2, TimeUnit.SECONDS).getName());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void groupFetching_missingId_ShouldFailOnlyThatLookup() throws Exception {
+        server.enqueue(new MockResponse.Builder().body("{\"cnt\":1,\"list\":[{\"id\":1,\"name\":\"Zocca\"}]}").build());
+        GroupFetchingWeatherService grouping = new GroupFetchingWeatherService(service, Duration.ofMillis(100));
+
+        CompletableFuture<WeatherData> found = grouping.fetchWeatherByIdAsync(1);
+        CompletableFuture<WeatherData> missing = grouping.fetchWeatherByIdAsync(3);
+
+        assertEquals("Zocca", found.get(2, TimeUnit.SECONDS).getName());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> missing.get(2, TimeUnit.SECONDS));
+        assertEquals(404, assertInstanceOf(SDKException.class, e.getCause()).getStatusCode());
+    }
+
+    @Test
+    void fetchWeather_apiError_ShouldThrowWithStatus() {
+        server.enqueue(new MockResponse.Builder().code(404).body("{\"cod\":\"404\",\"message\":\"city not found\"}").build());
+
+        SDKException e = assertThrows(SDKException.class, () -> service.fetchWeather("Atlantis"));
+        assertEquals(404, e.getStatusCode());
+        assertTrue(e.getMessage().contains("HTTP 404"), e.getMessage());
+        assertTrue(e.getMessage().contains("city not found"), e.getMessage());
+    }
+
+    @Test
+    void fetchWeather_largeErrorBody_ShouldKeepOnlyItsStart() {
+        server.enqueue(new MockResponse.Builder().code(500).body("x".repeat(64 * 1024)).build());
+
+        ApiResponseException e = assertThrows(ApiResponseException.class, () -> service.fetchWeather("Zocca"));
+        assertEquals(500, e.getStatusCode());
+        assertEquals("x".repeat(ApiResponseException.MAX_BODY_BYTES) + "...", e.getResponseBody());
+        assertTrue(e.getMessage().startsWith("Error API (HTTP 500) in request for Zocca."), e.getMessage());
+    }
+
+    @Test
+    void fetchWeatherAsync_ShouldCompleteWithDecodedData() throws Exception {
+        server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+
+        WeatherData data = service.fetchWeatherAsync("Zocca").get(2, TimeUnit.SECONDS);
+
+        assertEquals("scattered clouds", data.getWeather().getDescription());
+    }
+
+    @Test
+    void fetchWeatherAsync_serverError_ShouldFailWithSdkException() {
+        server.enqueue(new MockResponse.Builder().code(503).build());
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.fetchWeatherAsync("Zocca").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(SDKException.class, e.getCause());
+    }
+
+    @Test
+    void sharedTransport_ShouldBeReusedAcrossServices() {
+        assertSame(HttpTransport.shared(), HttpTransport.shared());
+        assertSame(HttpTransport.shared().client(), HttpTransport.shared().client());
+    }
+
+    @Test
+    void gzipDisabled_ShouldRequestIdentityEncoding() throws Exception {
+        HttpTransport plain = HttpTransport.builder().gzip(false).http2(false).build();
+        try {
+            server.enqueue(new MockResponse.Builder().body(RESPONSE).build());
+            new WeatherService(API_KEY, plain.client(), server.url("/data/2.5/weather").toString()).fetchWeather("Zocca");
+
+            RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+            assertEquals("identity", request.getHeaders().get("Accept-Encoding"));
+        } finally {
+            plain.shutdown();
+        }
+    }
+}